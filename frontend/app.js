@@ -8,6 +8,8 @@ function apiCall(method, url, body) {
         method: method,
         headers: { 'Content-Type': 'application/json' }
     };
+    const token = localStorage.getItem('authToken');
+    if (token) options.headers['Authorization'] = 'Bearer ' + token;
     if (body) options.body = JSON.stringify(body);
     return fetch(url, options);
 }
@@ -0,0 +1,124 @@
+#!/usr/bin/env bash
+# Smoke test of the native executable against the JVM jar.
+#
+# Starts each build on a free port with a fresh SQLite file, runs the same API flow
+# (frontend files, register, login, tasks, search, stats, calendar, 401/403, logout,
+# actuator) and compares the responses with those of the first build. Tokens, dates,
+# cursors and scores are masked, and JSON keys are sorted, before comparing. Also
+# prints the time until the first request succeeded and the resident memory after
+# the flow.
+#
+# Usage (from the project directory, after mvn -Pnative package):
+#   scripts/native-smoke-test.sh
+#   scripts/native-smoke-test.sh "java -jar target/tasks-to-do-1.0.0.jar" target/tasks-to-do
+# Needs curl and python3.
+set -euo pipefail
+
+if [ $# -eq 0 ]; then
+  set -- "java -jar target/tasks-to-do-1.0.0.jar" "target/tasks-to-do"
+fi
+
+work=$(mktemp -d)
+trap 'kill $(jobs -p) 2>/dev/null || true; rm -rf "$work"' EXIT
+
+port=$((20000 + RANDOM % 20000))
+
+# Canonical form of a response: status line plus the body with sorted keys and masked values
+normalize() {
+  python3 -c '
+import json, sys
+MASKED = {"token", "expires_in", "createdAt", "score", "next_cursor"}
+def mask(value):
+    if isinstance(value, dict):
+        return {k: "*" if k in MASKED and v is not None else mask(v) for k, v in value.items()}
+    if isinstance(value, list):
+        return [mask(v) for v in value]
+    return value
+status, body = sys.argv[1], sys.stdin.read()
+try:
+    body = json.dumps(mask(json.loads(body)), sort_keys=True, ensure_ascii=False)
+except ValueError:
+    body = "<%d bytes>" % len(body.encode())
+print(status, body)
+' "$1"
+}
+
+# call NAME METHOD PATH [TOKEN] [BODY]
+call() {
+  local name=$1 method=$2 path=$3 token=${4:-} body=${5:-}
+  local target=$port
+  # Actuator listens on its own port (management.server.port)
+  [[ $path == /actuator/* ]] && target=$((port + 10000))
+  local args=(-s -o "$work/body" -w '%{http_code}' -X "$method" "http://localhost:$target$path")
+  [ -n "$token" ] && args+=(-H "Authorization: Bearer $token")
+  [ -n "$body" ] && args+=(-H 'Content-Type: application/json' -d "$body")
+  local status
+  status=$(curl "${args[@]}")
+  echo "$name $(normalize "$status" < "$work/body")" >> "$transcript"
+}
+
+json_field() {
+  python3 -c 'import json, sys; print(json.load(sys.stdin)[sys.argv[1]])' "$1" < "$work/body"
+}
+
+run_flow() {
+  call index GET /index.html
+  call login-page GET /login.html
+  call auth-js GET /auth.js
+  call register-alice POST /api/auth/register "" '{"username":"alice","password":"senha123"}'
+  call register-bob POST /api/auth/register "" '{"username":"bob","password":"senha123"}'
+  call register-duplicate POST /api/auth/register "" '{"username":"alice","password":"senha123"}'
+  call login-wrong POST /api/auth/login "" '{"username":"alice","password":"errada"}'
+  call login POST /api/auth/login "" '{"username":"alice","password":"senha123"}'
+  local token
+  token=$(json_field token)
+  call no-token GET /api/tasks/user/1
+  call categories GET /api/categories "$token"
+  call create POST /api/tasks "$token" '{"title":"Revisão do relatório","description":"Conferir números & gráficos","category_id":1,"due_date":"2030-01-15"}'
+  call create-batch POST /api/tasks/batch "$token" '[{"title":"Comprar pão"},{"title":"Ligar para o banco","category_id":2}]'
+  call list GET /api/tasks/user/1 "$token"
+  call page GET "/api/tasks/user/1?limit=2" "$token"
+  call get GET /api/tasks/1 "$token"
+  call update PUT /api/tasks/1 "$token" '{"title":"Revisão final do relatório"}'
+  call toggle PATCH /api/tasks/2/completed "$token" '{"completed":1}'
+  call search GET "/api/tasks/user/1/search?q=relatorio" "$token"
+  call stats GET /api/tasks/user/1/stats "$token"
+  call range GET "/api/tasks/user/1/range?from=2030-01-01&to=2030-01-31" "$token"
+  call other-user GET /api/tasks/user/2 "$token"
+  call delete DELETE /api/tasks/3 "$token"
+  call user GET /api/auth/users/1 "$token"
+  call logout POST /api/auth/logout "$token"
+  call after-logout GET /api/tasks/user/1 "$token"
+  call health GET /actuator/health
+}
+
+baseline=""
+for command in "$@"; do
+  port=$((port + 1))
+  transcript="$work/transcript-$port"
+  log="$work/app-$port.log"
+  start=$(date +%s%N)
+  $command --server.port=$port --management.server.port=$((port + 10000)) --spring.datasource.url=jdbc:sqlite:$work/smoke-$port.db \
+      --app.auth.hash-iterations=1000 > "$log" 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "http://localhost:$port/login.html"; do
+    if ! kill -0 $pid 2>/dev/null; then
+      echo "✗ $command exited during startup:"; tail -20 "$log"; exit 1
+    fi
+    sleep 0.01
+  done
+  ready_ms=$(( ($(date +%s%N) - start) / 1000000 ))
+
+  run_flow
+  rss_mb=$(( $(awk '/VmRSS/ {print $2}' /proc/$pid/status) / 1024 ))
+  kill $pid; wait $pid 2>/dev/null || true
+  echo "$command: first request after ${ready_ms} ms, RSS ${rss_mb} MB"
+
+  if [ -z "$baseline" ]; then
+    baseline=$transcript
+  elif diff -u "$baseline" "$transcript" > "$work/diff"; then
+    echo "✓ Same responses as: $1"
+  else
+    echo "✗ Responses differ from: $1"; cat "$work/diff"; exit 1
+  fi
+done
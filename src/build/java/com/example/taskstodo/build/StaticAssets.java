@@ -0,0 +1,174 @@
+package com.example.taskstodo.build;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build step for the frontend (process-classes phase, run as a single-file program):
+ *
+ *   java -cp <brotli4j> StaticAssets.java src/main/resources/static target/classes/static
+ *
+ * - Every file other than the pages (*.html) is copied to assets/ under a name with
+ *   the first 12 hex digits of its SHA-256, e.g. assets/app.3f2a9c1b0d4e.css.
+ * - References to those files in the pages ("/app.css", "auth.js") are rewritten to
+ *   the hashed names. Pages keep their names, since they are the URLs users open.
+ * - Every text file then gets .gz (zlib level 9) and .br (quality 11) variants next to
+ *   it, kept only when smaller than the file.
+ *
+ * The pages are always read from the source directory, so the output is the same
+ * however often the step runs. The original asset files stay in place for anything
+ * that still asks for the plain names.
+ */
+public final class StaticAssets {
+    private static final String ASSETS = "assets";
+    private static final int HASH_DIGITS = 12;
+    private static final List<String> TEXT_EXTENSIONS = List.of("html", "css", "js", "svg", "json", "txt");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: StaticAssets <source dir> <output dir>");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        Brotli4jLoader.ensureAvailability();
+
+        clean(output);
+        Path assets = Files.createDirectories(output.resolve(ASSETS));
+
+        // Fingerprint the assets
+        Map<String, String> hashedNames = new LinkedHashMap<>();
+        List<Path> pages;
+        try (Stream<Path> files = Files.list(source)) {
+            pages = files.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path file : pages) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".html")) {
+                continue;
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            int dot = name.lastIndexOf('.');
+            String hashed = dot > 0
+                    ? name.substring(0, dot) + "." + hash(bytes) + name.substring(dot)
+                    : name + "." + hash(bytes);
+            Files.write(assets.resolve(hashed), bytes);
+            hashedNames.put(name, ASSETS + "/" + hashed);
+        }
+
+        // Point the pages at the fingerprinted names
+        for (Path file : pages) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(".html")) {
+                String html = Files.readString(file, StandardCharsets.UTF_8);
+                Files.writeString(output.resolve(name), rewrite(html, hashedNames), StandardCharsets.UTF_8);
+            }
+        }
+
+        long[] sizes = new long[3];
+        compressAll(output, sizes);
+        System.out.printf("✓ Static assets: %d fingerprinted, %d KB of text -> %d KB gzip, %d KB brotli%n",
+                hashedNames.size(), sizes[0] / 1024, sizes[1] / 1024, sizes[2] / 1024);
+    }
+
+    /**
+     * Remove what a previous run generated.
+     */
+    private static void clean(Path output) throws IOException {
+        if (!Files.isDirectory(output)) {
+            Files.createDirectories(output);
+            return;
+        }
+        try (Stream<Path> files = Files.walk(output)) {
+            for (Path file : files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList()) {
+                String name = file.getFileName().toString();
+                boolean generated = name.endsWith(".gz") || name.endsWith(".br")
+                        || file.startsWith(output.resolve(ASSETS));
+                if (generated) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_DIGITS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replace quoted references to an asset ("app.css", '/app.css', url(app.css)) with
+     * its fingerprinted path. Only whole quoted names are replaced.
+     */
+    private static String rewrite(String text, Map<String, String> hashedNames) {
+        for (Map.Entry<String, String> entry : hashedNames.entrySet()) {
+            Pattern reference = Pattern.compile("([\"'(])/?" + Pattern.quote(entry.getKey()) + "([\"')])");
+            text = reference.matcher(text).replaceAll(
+                    "$1/" + Matcher.quoteReplacement(entry.getValue()) + "$2");
+        }
+        return text;
+    }
+
+    private static void compressAll(Path output, long[] sizes) throws IOException {
+        Encoder.Parameters brotli = new Encoder.Parameters().setQuality(11);
+        try (Stream<Path> files = Files.walk(output)) {
+            files.filter(Files::isRegularFile).filter(StaticAssets::isText).forEach(file -> {
+                try {
+                    byte[] bytes = Files.readAllBytes(file);
+                    sizes[0] += bytes.length;
+                    sizes[1] += writeIfSmaller(file, ".gz", gzip(bytes), bytes.length);
+                    sizes[2] += writeIfSmaller(file, ".br", Encoder.compress(bytes, brotli), bytes.length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static boolean isText(Path file) {
+        String name = file.getFileName().toString();
+        return TEXT_EXTENSIONS.contains(name.substring(name.lastIndexOf('.') + 1));
+    }
+
+    private static long writeIfSmaller(Path file, String suffix, byte[] compressed, int size) throws IOException {
+        if (compressed.length >= size) {
+            return size;
+        }
+        Files.write(file.resolveSibling(file.getFileName() + suffix), compressed);
+        return compressed.length;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.TasksToDoApplication;
+import com.example.taskstodo.cache.TaskColumnStore;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Boots the application without a web server on a fresh temporary SQLite file
+ * and fills it with benchmark data. Shared by the benchmark states.
+ */
+final class BenchmarkApp implements AutoCloseable {
+    static final int USERS = 100;
+    static final String PASSWORD = "benchmark-pw";
+
+    private final Path directory;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkApp(Path directory, ConfigurableApplicationContext context) {
+        this.directory = directory;
+        this.context = context;
+    }
+
+    /**
+     * Start the application; extra properties override application.properties.
+     */
+    static BenchmarkApp start(Map<String, Object> properties) {
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("tasks-jmh");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("spring.datasource.url", "jdbc:sqlite:" + directory.resolve("bench.db"));
+        overrides.put("logging.level.root", "WARN");
+        overrides.put("app.auth.hash-iterations", 50000);
+        overrides.putAll(properties);
+
+        // Passed as command-line arguments so they take precedence over application.properties
+        String[] args = overrides.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksToDoApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args);
+        return new BenchmarkApp(directory, context);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    JdbcTemplate writeJdbc() {
+        return context.getBean("writeJdbcTemplate", JdbcTemplate.class);
+    }
+
+    /**
+     * Insert USERS users (user1..userN, all with PASSWORD) and tasksPerUser tasks each.
+     * Tasks get distinct creation times, due dates spread over a year and mixed categories.
+     *
+     * @param passwordValue stored password column value (a hash or legacy plaintext)
+     */
+    void seed(int tasksPerUser, String passwordValue) {
+        JdbcTemplate writeJdbc = writeJdbc();
+        TransactionTemplate transaction = context.getBean("writeTransactionTemplate", TransactionTemplate.class);
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+
+        transaction.executeWithoutResult(status -> {
+            List<Object[]> users = new ArrayList<>(USERS);
+            for (int user = 1; user <= USERS; user++) {
+                users.add(new Object[]{user, "user" + user, passwordValue});
+            }
+            writeJdbc.batchUpdate("INSERT INTO users (id, username, password) VALUES (?, ?, ?)", users);
+
+            List<Object[]> tasks = new ArrayList<>(tasksPerUser);
+            for (int user = 1; user <= USERS; user++) {
+                tasks.clear();
+                for (int i = 0; i < tasksPerUser; i++) {
+                    tasks.add(new Object[]{
+                            "Tarefa " + i + " do usuário " + user,
+                            i % 3 == 0 ? null : "Descrição da tarefa " + i + " com algum texto para pesar na serialização",
+                            i % 5 == 0 ? null : 1 + random.nextInt(4),
+                            user,
+                            i % 4 == 0 ? null : today.plusDays(random.nextInt(365) - 180).toString(),
+                            random.nextInt(3) == 0 ? 1 : 0,
+                            "-" + (tasksPerUser - i) + " minutes"
+                    });
+                }
+                writeJdbc.batchUpdate(
+                        "INSERT INTO tasks (title, description, category_id, user_id, due_date, completed, created_at) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, datetime('now', ?))",
+                        tasks);
+            }
+        });
+        writeJdbc.execute("ANALYZE");
+        bean(TaskColumnStore.class).reload();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.cache.CategoryCache;
+import com.example.taskstodo.model.Category;
+import com.example.taskstodo.repository.CategoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CategoryRepository.findAll served from the snapshot cache, and the same call
+ * after an invalidation (one database load per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryRepositoryBenchmark {
+
+    private BenchmarkApp app;
+    private CategoryRepository categories;
+    private CategoryCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of());
+        categories = app.bean(CategoryRepository.class);
+        cache = app.bean(CategoryCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<Category> findAllCached() {
+        return categories.findAll();
+    }
+
+    @Benchmark
+    public List<Category> findAllAfterInvalidate() {
+        cache.invalidate();
+        return categories.findAll();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.tasks.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the legacy com.example.tasks repository (rows as maps), on the same
+ * data as {@link TaskRepositoryBenchmark} for a direct comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LegacyTaskRepositoryBenchmark {
+
+    @Param({"100", "1000"})
+    public int tasksPerUser;
+
+    private BenchmarkApp app;
+    private TaskRepository tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of());
+        app.seed(tasksPerUser, BenchmarkApp.PASSWORD);
+        // Reads the same tasks table; the legacy schema setup (initTables) is not needed
+        tasks = new TaskRepository(app.bean(JdbcTemplate.class), app.writeJdbc());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> listTasks() {
+        return tasks.listTasks(TaskRepositoryBenchmark.randomUser());
+    }
+
+    @Benchmark
+    public Map<String, Object> getTaskById() {
+        return tasks.getTaskById(1 + (TaskRepositoryBenchmark.randomUser() - 1) * tasksPerUser);
+    }
+}
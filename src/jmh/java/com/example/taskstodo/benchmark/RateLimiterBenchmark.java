@@ -0,0 +1,56 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate limit check, from 4 threads at once: spread over many users
+ * (the common case) and all on one user (every check contends on the same bucket).
+ * Budgets are high enough that requests are never rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int users;
+
+    private RateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(new SimpleMeterRegistry(), 1e9, 1_000_000, 1e9, 1_000_000, 1e9, 1_000_000, 60);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        int user = users == 1 ? 1 : 1 + ThreadLocalRandom.current().nextInt(users);
+        return rateLimiter.tryAcquire(RateLimiter.Budget.READ, user);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.model.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a user's task list, as a whole (the default response)
+ * and element by element (the ?stream=true response).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter taskWriter;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring MVC uses
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        taskWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            tasks.add(new Task(i, "Tarefa " + i, i % 3 == 0 ? null : "Descrição da tarefa " + i,
+                    i % 5 == 0 ? null : 1 + i % 4, 1, i % 4 == 0 ? null : "2025-12-" + (10 + i % 18),
+                    i % 2, "2025-11-01 10:" + (10 + i % 50) + ":00"));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public int writeStreaming() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (Task task : tasks) {
+                taskWriter.writeValue(generator, task);
+            }
+            generator.writeEndArray();
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskFilter;
+import com.example.taskstodo.model.TaskSearchResult;
+import com.example.taskstodo.model.TaskStats;
+import com.example.taskstodo.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task read paths of the repository, with and without the per-user task cache and
+ * the in-memory task store (cache misses answered without SQLite).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+
+    @Param({"100", "1000"})
+    public int tasksPerUser;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"false", "true"})
+    public boolean memory;
+
+    private BenchmarkApp app;
+    private TaskRepository tasks;
+    private LocalDate monthStart;
+    private TaskFilter pendingWorkThisMonth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of("app.tasks.cache.enabled", cache, "app.tasks.memory.enabled", memory));
+        app.seed(tasksPerUser, BenchmarkApp.PASSWORD);
+        tasks = app.bean(TaskRepository.class);
+        monthStart = LocalDate.now().withDayOfMonth(1);
+        pendingWorkThisMonth = TaskFilter.of(false, "2,none", monthStart.toString(),
+                monthStart.plusMonths(1).minusDays(1).toString(), null, null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    static int randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(BenchmarkApp.USERS);
+    }
+
+    @Benchmark
+    public List<Task> findByUserId() {
+        return tasks.findByUserId(randomUser());
+    }
+
+    @Benchmark
+    public List<Task> findByUserIdAndCategoryId() {
+        return tasks.findByUserIdAndCategoryId(randomUser(), 2);
+    }
+
+    @Benchmark
+    public List<Task> findFirstPage() {
+        return tasks.findPageByUserId(randomUser(), null, 50);
+    }
+
+    @Benchmark
+    public List<Task> findMonthRange() {
+        return tasks.findByUserIdAndDueDateBetween(randomUser(), monthStart, monthStart.plusMonths(1).minusDays(1));
+    }
+
+    @Benchmark
+    public List<Task> filter() {
+        return tasks.filterByUserId(randomUser(), pendingWorkThisMonth);
+    }
+
+    @Benchmark
+    public TaskStats countByUserId() {
+        return tasks.countByUserId(randomUser());
+    }
+
+    @Benchmark
+    public List<TaskSearchResult> search() {
+        return tasks.searchByUserId(randomUser(), "descr tarefa 1", 20);
+    }
+}
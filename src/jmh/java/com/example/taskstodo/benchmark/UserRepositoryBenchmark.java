@@ -0,0 +1,68 @@
+package com.example.taskstodo.benchmark;
+
+import com.example.taskstodo.model.User;
+import com.example.taskstodo.repository.UserRepository;
+import com.example.taskstodo.security.PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserRepository.login at several PBKDF2 iteration counts, for a valid login,
+ * a wrong password and an unknown user (which must cost the same).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    @Param({"25000", "50000", "100000"})
+    public int hashIterations;
+
+    private BenchmarkApp app;
+    private UserRepository users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        app = BenchmarkApp.start(Map.of("app.auth.hash-iterations", hashIterations));
+        app.seed(0, app.bean(PasswordHasher.class).hash(BenchmarkApp.PASSWORD));
+        users = app.bean(UserRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        app.close();
+    }
+
+    @Benchmark
+    public Optional<User> login() {
+        return users.login("user" + TaskRepositoryBenchmark.randomUser(), BenchmarkApp.PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> loginWrongPassword() {
+        return users.login("user" + TaskRepositoryBenchmark.randomUser(), "wrong-password");
+    }
+
+    @Benchmark
+    public Optional<User> loginUnknownUser() {
+        return users.login("nobody", BenchmarkApp.PASSWORD);
+    }
+}
@@ -0,0 +1,475 @@
+package com.example.taskstodo.loadtest;
+
+import com.example.taskstodo.TasksToDoApplication;
+import com.example.taskstodo.cache.TaskColumnStore;
+import com.example.taskstodo.security.PasswordHasher;
+import com.example.taskstodo.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load test of the frontend flows.
+ *
+ * Boots the application in this JVM on a random local port with a temporary SQLite
+ * file, seeds users and tasks, then starts requests at a fixed arrival rate
+ * (Poisson or uniform), independent of how fast responses come back. Latency is
+ * measured from the moment a request was scheduled to start, so a stalled server
+ * shows up in the percentiles instead of silently lowering the request rate
+ * (no coordinated omission). When max-inflight requests are outstanding, new
+ * arrivals are dropped and counted as errors.
+ *
+ * API calls carry a session token per user, issued up front as a browser would hold
+ * one after logging in; LOGIN requests still exercise the login endpoint itself.
+ *
+ * Arguments are key=value pairs (see {@link Config}); arguments starting with --
+ * are passed to the application, e.g. --app.tasks.write-behind.enabled=true.
+ * Needs no network access beyond localhost.
+ */
+public final class LoadGenerator {
+    private static final String PASSWORD = "loadtest-pw";
+
+    /**
+     * One request of a frontend flow; the mix key is the lower-case name.
+     */
+    enum Operation {
+        LOGIN,       // login.html
+        DASHBOARD,   // dashboard.html task list
+        STATS,       // dashboard.html counters
+        TOGGLE,      // dashboard.html checkbox
+        EDIT,        // editar-tarefa.html save
+        CALENDAR,    // calendario.html month
+        CATEGORIES   // category selects
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        Map<String, Object> result;
+        if ("compare".equals(config.threads)) {
+            // Same seed, rate and mix against each request thread model, each on a fresh database
+            Map<String, Object> platform = runOnce(config, "platform");
+            Map<String, Object> virtual = runOnce(config, "virtual");
+            compare(platform, virtual);
+            result = new LinkedHashMap<>();
+            result.put("platform", platform);
+            result.put("virtual", virtual);
+        } else {
+            result = runOnce(config, config.threads);
+        }
+
+        if (config.output != null) {
+            Path output = Path.of(config.output);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+            System.out.println("\nResults written to " + output);
+        }
+    }
+
+    /**
+     * Boot the application, seed it, run the load and return the report.
+     *
+     * @param threads platform or virtual request threads, or null for the application's setting
+     */
+    private static Map<String, Object> runOnce(Config config, String threads) throws Exception {
+        Path directory = Files.createTempDirectory("tasks-loadtest");
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("load.db"),
+                "--logging.level.root=WARN"));
+        if (threads != null) {
+            appArgs.add("--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+        }
+        // Every simulated user logs in from 127.0.0.1 and runs far above a browser's rate
+        if (config.appArgs.stream().noneMatch(arg -> arg.startsWith("--app.ratelimit.enabled="))) {
+            appArgs.add("--app.ratelimit.enabled=false");
+        }
+        appArgs.addAll(config.appArgs);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TasksToDoApplication.class)
+                .logStartupInfo(false)
+                .run(appArgs.toArray(String[]::new));
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(4);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            seed(context, config);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(httpExecutor)
+                    .build();
+
+            String threadModel = context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    ? "virtual" : "platform";
+            TokenService tokenService = context.getBean(TokenService.class);
+            String[] tokens = new String[config.users + 1];
+            for (int user = 1; user <= config.users; user++) {
+                tokens[user] = tokenService.issue(user);
+            }
+            LoadGenerator test = new LoadGenerator(config, client, URI.create("http://localhost:" + port), tokens);
+            test.run(threadModel);
+            return test.report(threadModel);
+        } finally {
+            httpExecutor.shutdownNow();
+            context.close();
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void compare(Map<String, Object> platform, Map<String, Object> virtual) {
+        Map<String, Object> before = (Map<String, Object>) platform.get("total");
+        Map<String, Object> after = (Map<String, Object>) virtual.get("total");
+        Map<String, Object> beforeLatency = (Map<String, Object>) before.get("latency_ms");
+        Map<String, Object> afterLatency = (Map<String, Object>) after.get("latency_ms");
+        System.out.printf("%n%-14s %12s %12s%n", "total", "platform", "virtual");
+        for (String key : List.of("throughput", "error_rate")) {
+            System.out.printf("%-14s %12.3f %12.3f%n", key, (Double) before.get(key), (Double) after.get(key));
+        }
+        for (String key : List.of("p50", "p99", "p999", "max")) {
+            System.out.printf("%-14s %12.2f %12.2f%n", key + " ms", (Double) beforeLatency.get(key), (Double) afterLatency.get(key));
+        }
+    }
+
+    private final Config config;
+    private final HttpClient client;
+    private final URI base;
+    private final String[] tokens;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final String monthFrom = LocalDate.now().withDayOfMonth(1).toString();
+    private final String monthTo = LocalDate.now().withDayOfMonth(1).plusMonths(1).minusDays(1).toString();
+
+    private LoadGenerator(Config config, HttpClient client, URI base, String[] tokens) {
+        this.config = config;
+        this.client = client;
+        this.base = base;
+        this.tokens = tokens;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    private void run(String threadModel) throws InterruptedException {
+        Random random = new Random(config.seed);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        double meanGapNanos = 1e9 / config.rate;
+
+        System.out.printf("Load test: %.0f req/s (%s arrivals), %ds warm-up + %ds, %d users x %d tasks, %s threads, mix %s%n",
+                config.rate, config.poisson ? "Poisson" : "uniform", config.warmupSeconds,
+                config.durationSeconds, config.users, config.tasksPerUser, threadModel, config.mix);
+
+        long next = start;
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = config.pick(random);
+            boolean measured = next >= measureFrom;
+            if (inflight.get() >= config.maxInflight) {
+                if (measured) {
+                    stats.get(operation).dropped.increment();
+                }
+            } else {
+                send(operation, random, next, measured);
+            }
+            double gap = config.poisson ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+            next += (long) gap;
+        }
+
+        // Let outstanding requests finish (their latency still counts)
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inflight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void send(Operation operation, Random random, long intendedStart, boolean measured) {
+        int user = 1 + random.nextInt(config.users);
+        int task = (user - 1) * config.tasksPerUser + 1 + random.nextInt(config.tasksPerUser);
+        HttpRequest request = request(operation, user, task, random);
+
+        inflight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            inflight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            Stats operationStats = stats.get(operation);
+            operationStats.latency.recordValue(Math.min(latencyMicros, operationStats.latency.getHighestTrackableValue()));
+            operationStats.count.increment();
+            if (error != null || response.statusCode() >= 400) {
+                operationStats.errors.increment();
+            }
+        });
+    }
+
+    private HttpRequest request(Operation operation, int user, int task, Random random) {
+        switch (operation) {
+            case LOGIN:
+                return json(0, "/api/auth/login", "POST",
+                        "{\"username\":\"user" + user + "\",\"password\":\"" + PASSWORD + "\"}");
+            case DASHBOARD:
+                return get(user, "/api/tasks/user/" + user);
+            case STATS:
+                return get(user, "/api/tasks/user/" + user + "/stats");
+            case TOGGLE:
+                return json(user, "/api/tasks/" + task + "/completed", "PATCH",
+                        "{\"completed\":" + random.nextInt(2) + "}");
+            case EDIT:
+                return json(user, "/api/tasks/" + task, "PUT",
+                        "{\"title\":\"Tarefa editada " + random.nextInt(1000) + "\",\"description\":\"Carga\"}");
+            case CALENDAR:
+                return get(user, "/api/tasks/user/" + user + "/range?from=" + monthFrom + "&to=" + monthTo);
+            case CATEGORIES:
+                return get(user, "/api/categories");
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    private HttpRequest get(int user, String path) {
+        return builder(user, path).GET().build();
+    }
+
+    private HttpRequest json(int user, String path, String method, String body) {
+        return builder(user, path)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Request to path as the given user; user 0 sends no session token.
+     */
+    private HttpRequest.Builder builder(int user, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(path)).timeout(Duration.ofSeconds(30));
+        return user > 0 ? builder.header("Authorization", "Bearer " + tokens[user]) : builder;
+    }
+
+    private Map<String, Object> report(String threadModel) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threads", threadModel);
+        result.put("rate", config.rate);
+        result.put("arrivals", config.poisson ? "poisson" : "uniform");
+        result.put("duration_seconds", config.durationSeconds);
+        result.put("users", config.users);
+        result.put("tasks_per_user", config.tasksPerUser);
+        result.put("mix", config.mix);
+
+        Histogram total = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%n%-11s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "err %", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats operationStats = entry.getValue();
+            long count = operationStats.count.sum();
+            long dropped = operationStats.dropped.sum();
+            if (count + dropped == 0) {
+                continue;
+            }
+            long errors = operationStats.errors.sum() + dropped;
+            total.add(operationStats.latency);
+            totalErrors += errors;
+            totalDropped += dropped;
+            operations.put(entry.getKey().name().toLowerCase(), summary(operationStats.latency, count, errors, dropped));
+            print(entry.getKey().name().toLowerCase(), operationStats.latency, count, errors, dropped);
+        }
+        print("total", total, total.getTotalCount(), totalErrors, totalDropped);
+        result.put("operations", operations);
+        result.put("total", summary(total, total.getTotalCount(), totalErrors, totalDropped));
+        return result;
+    }
+
+    private void print(String name, Histogram latency, long count, long errors, long dropped) {
+        System.out.printf("%-11s %9d %9.1f %8d %8.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                name, count, (double) count / config.durationSeconds, errors,
+                100.0 * errors / Math.max(1, count + dropped),
+                millis(latency, 50), millis(latency, 99), millis(latency, 99.9), latency.getMaxValue() / 1000.0);
+    }
+
+    private Map<String, Object> summary(Histogram latency, long count, long errors, long dropped) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("throughput", (double) count / config.durationSeconds);
+        summary.put("errors", errors);
+        summary.put("dropped", dropped);
+        summary.put("error_rate", (double) errors / Math.max(1, count + dropped));
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", millis(latency, 50));
+        percentiles.put("p90", millis(latency, 90));
+        percentiles.put("p99", millis(latency, 99));
+        percentiles.put("p999", millis(latency, 99.9));
+        percentiles.put("max", latency.getMaxValue() / 1000.0);
+        percentiles.put("mean", latency.getMean() / 1000.0);
+        summary.put("latency_ms", percentiles);
+        return summary;
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Users user1..userN (all with the same hashed password) and tasks with ids
+     * (user - 1) * tasksPerUser + 1 .. user * tasksPerUser.
+     */
+    private static void seed(ConfigurableApplicationContext context, Config config) {
+        JdbcTemplate writeJdbc = context.getBean("writeJdbcTemplate", JdbcTemplate.class);
+        TransactionTemplate transaction = context.getBean("writeTransactionTemplate", TransactionTemplate.class);
+        String hash = context.getBean(PasswordHasher.class).hash(PASSWORD);
+        Random random = new Random(config.seed);
+        LocalDate today = LocalDate.now();
+
+        transaction.executeWithoutResult(status -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (int user = 1; user <= config.users; user++) {
+                rows.add(new Object[]{user, "user" + user, hash});
+            }
+            writeJdbc.batchUpdate("INSERT INTO users (id, username, password) VALUES (?, ?, ?)", rows);
+
+            int id = 1;
+            for (int user = 1; user <= config.users; user++) {
+                rows.clear();
+                for (int i = 0; i < config.tasksPerUser; i++) {
+                    rows.add(new Object[]{
+                            id++,
+                            "Tarefa " + i,
+                            i % 3 == 0 ? null : "Descrição da tarefa " + i,
+                            i % 5 == 0 ? null : 1 + random.nextInt(4),
+                            user,
+                            i % 4 == 0 ? null : today.plusDays(random.nextInt(365) - 180).toString(),
+                            random.nextInt(3) == 0 ? 1 : 0,
+                            "-" + (config.tasksPerUser - i) + " minutes"
+                    });
+                }
+                writeJdbc.batchUpdate(
+                        "INSERT INTO tasks (id, title, description, category_id, user_id, due_date, completed, created_at) " +
+                                "VALUES (?, ?, ?, ?, ?, ?, ?, datetime('now', ?))",
+                        rows);
+            }
+        });
+        writeJdbc.execute("ANALYZE");
+        // Seeded behind the repository's back: refresh the in-memory store (app.tasks.memory.enabled)
+        context.getBean(TaskColumnStore.class).reload();
+    }
+
+    private static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+
+    /**
+     * Load test settings, given as key=value arguments:
+     * rate (requests/s, default 200), duration and warmup (seconds, 30 and 5),
+     * arrivals (poisson or uniform), users (100), tasks (per user, 200),
+     * max-inflight (512), mix (operation:weight list), seed, output (JSON file),
+     * threads (platform, virtual, or compare to run both; default: the application's setting).
+     */
+    static final class Config {
+        double rate = 200;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        boolean poisson = true;
+        int users = 100;
+        int tasksPerUser = 200;
+        int maxInflight = 512;
+        long seed = 42;
+        String output;
+        String threads;
+        String mix = "login:5,dashboard:30,stats:15,toggle:15,edit:10,calendar:15,categories:10";
+        final List<String> appArgs = new ArrayList<>();
+        private final List<Operation> weighted = new ArrayList<>();
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                if (arg.startsWith("--")) {
+                    config.appArgs.add(arg);
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                if (eq < 0) {
+                    throw new IllegalArgumentException("Expected key=value: " + arg);
+                }
+                String key = arg.substring(0, eq);
+                String value = arg.substring(eq + 1);
+                switch (key) {
+                    case "rate": config.rate = Double.parseDouble(value); break;
+                    case "duration": config.durationSeconds = Integer.parseInt(value); break;
+                    case "warmup": config.warmupSeconds = Integer.parseInt(value); break;
+                    case "arrivals": config.poisson = !"uniform".equalsIgnoreCase(value); break;
+                    case "users": config.users = Integer.parseInt(value); break;
+                    case "tasks": config.tasksPerUser = Integer.parseInt(value); break;
+                    case "max-inflight": config.maxInflight = Integer.parseInt(value); break;
+                    case "seed": config.seed = Long.parseLong(value); break;
+                    case "output": config.output = value; break;
+                    case "mix": config.mix = value; break;
+                    case "threads": config.threads = value.toLowerCase(); break;
+                    default: throw new IllegalArgumentException("Unknown setting: " + key);
+                }
+            }
+            for (String part : config.mix.split(",")) {
+                String[] weight = part.trim().split(":");
+                Operation operation = Operation.valueOf(weight[0].trim().toUpperCase());
+                for (int i = 0; i < Integer.parseInt(weight[1].trim()); i++) {
+                    config.weighted.add(operation);
+                }
+            }
+            if (config.threads != null && !List.of("platform", "virtual", "compare").contains(config.threads)) {
+                throw new IllegalArgumentException("threads must be platform, virtual or compare: " + config.threads);
+            }
+            if (config.weighted.isEmpty()) {
+                throw new IllegalArgumentException("Empty mix: " + config.mix);
+            }
+            return config;
+        }
+
+        Operation pick(Random random) {
+            return weighted.get(random.nextInt(weighted.size()));
+        }
+    }
+}
@@ -1,25 +1,44 @@
 package com.example.tasks.config;
 
+import com.example.taskstodo.config.SqliteDataSourceFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import javax.sql.DataSource;
-import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.lang.NonNull;
 
+/**
+ * DatabaseConfig - Pool de leitura (WAL) e conexão única de escrita
+ * Todas as escritas passam pela writeJdbcTemplate, em fila
+ */
 @Configuration
 public class DatabaseConfig {
+    private final SqliteDataSourceFactory factory =
+            new SqliteDataSourceFactory("jdbc:sqlite:./data/tarefas.db", 5000, "NORMAL", 268435456L);
+
     @Bean
+    @Primary
     public DataSource dataSource() {
-        return DataSourceBuilder.create()
-                .driverClassName("org.sqlite.JDBC")
-                .url("jdbc:sqlite:./data/tarefas.db")
-                .build();
+        return factory.createReadPool(8);
     }
 
     @Bean
+    public DataSource writeDataSource() {
+        return factory.createWriter(30000);
+    }
+
+    @Bean
+    @Primary
     @SuppressWarnings("null")
     public JdbcTemplate jdbcTemplate(@NonNull DataSource ds){ 
         return new JdbcTemplate(ds); 
     }
+
+    @Bean
+    @SuppressWarnings("null")
+    public JdbcTemplate writeJdbcTemplate(@NonNull @Qualifier("writeDataSource") DataSource ds){ 
+        return new JdbcTemplate(ds); 
+    }
 }
@@ -3,18 +3,20 @@ package com.example.tasks.controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class AuthController {
     private final JdbcTemplate jdbc;
-    public AuthController(JdbcTemplate jdbc){ this.jdbc = jdbc; }
+    private final JdbcTemplate writeJdbc;
+    public AuthController(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc){ this.jdbc = jdbc; this.writeJdbc = writeJdbc; }
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody Map<String,String> body){
         try {
-            jdbc.update("INSERT INTO users(username,password) VALUES(?,?)", body.get("username"), body.get("password"));
+            writeJdbc.update("INSERT INTO users(username,password) VALUES(?,?)", body.get("username"), body.get("password"));
             return ResponseEntity.status(201).build();
         } catch (Exception e){
             return ResponseEntity.status(409).body(Map.of("error","Usuario ja existe"));
@@ -1,5 +1,6 @@
 package com.example.tasks.repository;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -12,19 +13,27 @@ import java.util.Map;
 @Repository
 public class TaskRepository {
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate writeJdbc;
     
-    public TaskRepository(JdbcTemplate jdbc){ 
+    public TaskRepository(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc){ 
         this.jdbc = jdbc; 
+        this.writeJdbc = writeJdbc; 
     }
 
     /**
      * Inicializa as tabelas do banco de dados
      */
     public void initTables(){
-        jdbc.execute("PRAGMA foreign_keys = ON;");
-        jdbc.execute("CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL);"); 
-        jdbc.execute("CREATE TABLE IF NOT EXISTS categories (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, user_id INTEGER NOT NULL, FOREIGN KEY(user_id) REFERENCES users(id));"); 
-        jdbc.execute("CREATE TABLE IF NOT EXISTS tasks (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, description TEXT, category_id INTEGER, user_id INTEGER NOT NULL, due_date TEXT, completed INTEGER DEFAULT 0, created_at TEXT DEFAULT (datetime('now')), FOREIGN KEY(category_id) REFERENCES categories(id), FOREIGN KEY(user_id) REFERENCES users(id));");
+        writeJdbc.execute("PRAGMA foreign_keys = ON;");
+        writeJdbc.execute("CREATE TABLE IF NOT EXISTS users (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT UNIQUE NOT NULL, password TEXT NOT NULL);"); 
+        writeJdbc.execute("CREATE TABLE IF NOT EXISTS categories (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL, user_id INTEGER NOT NULL, FOREIGN KEY(user_id) REFERENCES users(id));"); 
+        writeJdbc.execute("CREATE TABLE IF NOT EXISTS tasks (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT NOT NULL, description TEXT, category_id INTEGER, user_id INTEGER NOT NULL, due_date TEXT, completed INTEGER DEFAULT 0, created_at TEXT DEFAULT (datetime('now')), FOREIGN KEY(category_id) REFERENCES categories(id), FOREIGN KEY(user_id) REFERENCES users(id));");
+        
+        // Índice para listagem por usuário; o login usa o índice UNIQUE de username
+        writeJdbc.execute("CREATE INDEX IF NOT EXISTS idx_tasks_user_created ON tasks (user_id, created_at DESC, id DESC);");
+        // Índice de cobertura antigo: guardava uma segunda cópia dos hashes de senha (ver migração 6)
+        writeJdbc.execute("DROP INDEX IF EXISTS idx_users_login;");
+        writeJdbc.execute("PRAGMA optimize;");
         
         // Inserir categorias padrão
         insertDefaultCategories();
@@ -37,11 +46,11 @@ public class TaskRepository {
         try {
             Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM categories", Integer.class);
             if (count != null && count == 0) {
-                jdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Trabalho", 1);
-                jdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Pessoal", 1);
-                jdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Saúde", 1);
-                jdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Educação", 1);
-                jdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Lazer", 1);
+                writeJdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Trabalho", 1);
+                writeJdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Pessoal", 1);
+                writeJdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Saúde", 1);
+                writeJdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Educação", 1);
+                writeJdbc.update("INSERT INTO categories(name, user_id) VALUES(?, ?)", "Lazer", 1);
             }
         } catch (Exception e) {
             // Silenciosamente falha se categorias já existem
@@ -74,11 +83,13 @@ public class TaskRepository {
 
     /**
      * Cria uma nova tarefa
+     * Retorna o id gerado (INSERT ... RETURNING, uma única ida ao banco) ou 0 em caso de erro
      */
     public int createTask(String title, String description, Integer userId, String dueDate, Integer categoryId, boolean completed){
         try {
-            return jdbc.update(
-                "INSERT INTO tasks(title, description, user_id, due_date, category_id, completed) VALUES(?, ?, ?, ?, ?, ?)", 
+            Integer id = writeJdbc.queryForObject(
+                "INSERT INTO tasks(title, description, user_id, due_date, category_id, completed) VALUES(?, ?, ?, ?, ?, ?) RETURNING id", 
+                Integer.class, 
                 title, 
                 description, 
                 userId, 
@@ -86,6 +97,7 @@ public class TaskRepository {
                 categoryId, 
                 completed ? 1 : 0
             );
+            return id != null ? id : 0;
         } catch (Exception e) {
             System.err.println("Erro ao criar tarefa: " + e.getMessage());
             return 0;
@@ -97,7 +109,7 @@ public class TaskRepository {
      */
     public int updateTask(int id, String title, String description, String dueDate, Integer categoryId, boolean completed){
         try {
-            return jdbc.update(
+            return writeJdbc.update(
                 "UPDATE tasks SET title=?, description=?, due_date=?, category_id=?, completed=? WHERE id=?", 
                 title, 
                 description, 
@@ -117,7 +129,7 @@ public class TaskRepository {
      */
     public int updateCompleted(int id, boolean completed){
         try {
-            return jdbc.update(
+            return writeJdbc.update(
                 "UPDATE tasks SET completed=? WHERE id=?", 
                 completed ? 1 : 0, 
                 id
@@ -133,7 +145,7 @@ public class TaskRepository {
      */
     public int deleteTask(int id){
         try {
-            return jdbc.update("DELETE FROM tasks WHERE id=?", id);
+            return writeJdbc.update("DELETE FROM tasks WHERE id=?", id);
         } catch (Exception e) {
             System.err.println("Erro ao deletar tarefa: " + e.getMessage());
             return 0;
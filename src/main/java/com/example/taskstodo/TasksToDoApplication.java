@@ -1,11 +1,19 @@
 package com.example.taskstodo;
 
+import com.example.taskstodo.config.NativeHints;
+import com.example.taskstodo.config.StartupTimeline;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class TasksToDoApplication {
     public static void main(String[] args) {
-        SpringApplication.run(TasksToDoApplication.class, args);
+        SpringApplication application = new SpringApplication(TasksToDoApplication.class);
+        StartupTimeline timeline = new StartupTimeline();
+        application.setApplicationStartup(timeline.getApplicationStartup());
+        application.addListeners(timeline);
+        application.run(args);
     }
 }
@@ -0,0 +1,36 @@
+package com.example.taskstodo.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss counters of the in-process caches and the size of the in-memory task store.
+ * GET /actuator/cachestats on the management port: the counts cover every user, so they
+ * are not part of the public API.
+ */
+@Component
+@Endpoint(id = "cachestats")
+public class CacheStatsEndpoint {
+    private final CategoryCache categoryCache;
+    private final TaskCache taskCache;
+    private final TaskColumnStore taskMemory;
+
+    public CacheStatsEndpoint(CategoryCache categoryCache, TaskCache taskCache, TaskColumnStore taskMemory) {
+        this.categoryCache = categoryCache;
+        this.taskCache = taskCache;
+        this.taskMemory = taskMemory;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("categories", categoryCache.stats());
+        stats.put("tasks", taskCache.stats());
+        stats.put("memory", taskMemory.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.taskstodo.cache;
+
+import com.example.taskstodo.model.Category;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * In-process cache holding an immutable snapshot of all categories.
+ *
+ * Hits are a single volatile read. A miss loads the full list once and installs it;
+ * loading and invalidation share a lock, so a load that raced with a write can never
+ * survive the invalidation that follows the write.
+ */
+@Component
+public class CategoryCache {
+    private final Object lock = new Object();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Return the cached snapshot, loading it with the given loader on a miss.
+     */
+    public Snapshot get(Supplier<List<Category>> loader) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.increment();
+            return current;
+        }
+        synchronized (lock) {
+            current = snapshot;
+            if (current != null) {
+                hits.increment();
+                return current;
+            }
+            misses.increment();
+            current = new Snapshot(List.copyOf(loader.get()));
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Drop the snapshot. Call after every committed change to the categories table.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            snapshot = null;
+            invalidations.increment();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("hit_ratio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+
+    /**
+     * Immutable list of categories plus its ETag.
+     * The ETag is a checksum of the content, so it stays stable across restarts.
+     */
+    public static final class Snapshot {
+        private final List<Category> categories;
+        private final String etag;
+
+        Snapshot(List<Category> categories) {
+            this.categories = categories;
+            CRC32 crc = new CRC32();
+            for (Category category : categories) {
+                crc.update((category.getId() + ":" + category.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            this.etag = "\"c" + Long.toHexString(crc.getValue()) + "-" + categories.size() + "\"";
+        }
+
+        public List<Category> getCategories() {
+            return categories;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.taskstodo.cache;
+
+import com.example.taskstodo.model.TaskFilter;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-user Roaring bitmap indexes over the slots of {@link TaskColumnStore}, for
+ * {@link TaskFilter} queries. Each user has a bitmap of all their tasks, one of the
+ * completed ones, one per category, and one per due day and per creation day (sorted,
+ * so a date window is the union of a sub-map). A filter is answered with a few unions
+ * and intersections of compressed bitmaps, whatever the combination.
+ *
+ * Not thread-safe: TaskColumnStore reads it under its read lock and changes it under
+ * its write lock.
+ */
+class TaskBitmapIndex {
+    static final int NO_DAY = Integer.MIN_VALUE;
+
+    private final Map<Integer, UserBitmaps> users = new HashMap<>();
+
+    /**
+     * Index a task slot. categoryId is TaskColumnStore's NO_CATEGORY for none,
+     * the days are NO_DAY when the task has no such date.
+     */
+    void add(int userId, int slot, boolean completed, int categoryId, int dueDay, int createdDay) {
+        UserBitmaps bitmaps = users.computeIfAbsent(userId, id -> new UserBitmaps());
+        bitmaps.all.add(slot);
+        if (completed) {
+            bitmaps.completed.add(slot);
+        }
+        bitmaps.byCategory.computeIfAbsent(categoryId, id -> new RoaringBitmap()).add(slot);
+        if (dueDay != NO_DAY) {
+            bitmaps.byDueDay.computeIfAbsent(dueDay, day -> new RoaringBitmap()).add(slot);
+        }
+        if (createdDay != NO_DAY) {
+            bitmaps.byCreatedDay.computeIfAbsent(createdDay, day -> new RoaringBitmap()).add(slot);
+        }
+    }
+
+    /**
+     * Remove a task slot, given the values it was indexed with.
+     */
+    void remove(int userId, int slot, boolean completed, int categoryId, int dueDay, int createdDay) {
+        UserBitmaps bitmaps = users.get(userId);
+        if (bitmaps == null) {
+            return;
+        }
+        bitmaps.all.remove(slot);
+        if (bitmaps.all.isEmpty()) {
+            users.remove(userId);
+            return;
+        }
+        if (completed) {
+            bitmaps.completed.remove(slot);
+        }
+        removeFrom(bitmaps.byCategory, categoryId, slot);
+        if (dueDay != NO_DAY) {
+            removeFrom(bitmaps.byDueDay, dueDay, slot);
+        }
+        if (createdDay != NO_DAY) {
+            removeFrom(bitmaps.byCreatedDay, createdDay, slot);
+        }
+    }
+
+    private static void removeFrom(Map<Integer, RoaringBitmap> bitmaps, int key, int slot) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Slots of a user's tasks that match the filter.
+     */
+    RoaringBitmap filter(int userId, TaskFilter filter, int noCategory) {
+        UserBitmaps bitmaps = users.get(userId);
+        if (bitmaps == null) {
+            return new RoaringBitmap();
+        }
+        List<RoaringBitmap> required = new ArrayList<>();
+        List<RoaringBitmap> excluded = new ArrayList<>();
+        required.add(bitmaps.all);
+
+        if (filter.getCompleted() != null) {
+            (filter.getCompleted() ? required : excluded).add(bitmaps.completed);
+        }
+        if (filter.getCategoryIds() != null) {
+            List<RoaringBitmap> categories = new ArrayList<>();
+            for (int categoryId : filter.getCategoryIds()) {
+                addIfPresent(categories, bitmaps.byCategory.get(categoryId));
+            }
+            if (filter.isWithoutCategory()) {
+                addIfPresent(categories, bitmaps.byCategory.get(noCategory));
+            }
+            required.add(union(categories));
+        }
+        if (filter.getDueFrom() != null || filter.getDueTo() != null) {
+            required.add(union(window(bitmaps.byDueDay, filter.getDueFrom(), filter.getDueTo()).values()));
+        }
+        if (filter.getOverdue() != null) {
+            RoaringBitmap overdue = RoaringBitmap.andNot(
+                    union(bitmaps.byDueDay.headMap(filter.getToday(), true).values()), bitmaps.completed);
+            (filter.getOverdue() ? required : excluded).add(overdue);
+        }
+        if (filter.getCreatedFrom() != null || filter.getCreatedTo() != null) {
+            required.add(union(window(bitmaps.byCreatedDay, filter.getCreatedFrom(), filter.getCreatedTo()).values()));
+        }
+
+        RoaringBitmap result = required.size() == 1 ? bitmaps.all.clone() : FastAggregation.and(required.iterator());
+        for (RoaringBitmap bitmap : excluded) {
+            result.andNot(bitmap);
+        }
+        return result;
+    }
+
+    private static void addIfPresent(List<RoaringBitmap> bitmaps, RoaringBitmap bitmap) {
+        if (bitmap != null) {
+            bitmaps.add(bitmap);
+        }
+    }
+
+    private static NavigableMap<Integer, RoaringBitmap> window(NavigableMap<Integer, RoaringBitmap> byDay, Integer from, Integer to) {
+        if (from == null) {
+            return byDay.headMap(to, true);
+        }
+        return to == null ? byDay.tailMap(from, true) : byDay.subMap(from, true, to, true);
+    }
+
+    private static RoaringBitmap union(Collection<RoaringBitmap> bitmaps) {
+        return bitmaps.isEmpty() ? new RoaringBitmap() : FastAggregation.or(bitmaps.iterator());
+    }
+
+    /**
+     * Approximate size of all bitmaps in bytes.
+     */
+    long sizeInBytes() {
+        long bytes = 0;
+        for (UserBitmaps bitmaps : users.values()) {
+            bytes += bitmaps.all.getLongSizeInBytes() + bitmaps.completed.getLongSizeInBytes();
+            for (Map<Integer, RoaringBitmap> index : List.of(bitmaps.byCategory, bitmaps.byDueDay, bitmaps.byCreatedDay)) {
+                for (RoaringBitmap bitmap : index.values()) {
+                    bytes += bitmap.getLongSizeInBytes();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static final class UserBitmaps {
+        final RoaringBitmap all = new RoaringBitmap();
+        final RoaringBitmap completed = new RoaringBitmap();
+        final Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+        final NavigableMap<Integer, RoaringBitmap> byDueDay = new TreeMap<>();
+        final NavigableMap<Integer, RoaringBitmap> byCreatedDay = new TreeMap<>();
+    }
+}
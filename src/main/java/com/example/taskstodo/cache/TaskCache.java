@@ -0,0 +1,281 @@
+package com.example.taskstodo.cache;
+
+import com.example.taskstodo.model.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded per-user cache of task lists (the result of TaskRepository.findByUserId).
+ *
+ * Users are spread over independent segments, each an access-ordered LinkedHashMap
+ * with its own lock, so unrelated users never contend. Every segment evicts its least
+ * recently used users once it holds more than its share of max-users entries or of
+ * max-bytes (an estimate of the retained size of the cached tasks). A single list
+ * larger than a segment's byte budget is not cached at all.
+ *
+ * Writes patch cached lists in place (copy-on-write) instead of dropping them, so the
+ * next dashboard refresh after a toggle is still a hit. Patches must arrive in the order
+ * their writes committed, which TaskRepository ensures. Every write bumps the segment
+ * version; a load that started before the write sees the changed version and does not
+ * install its possibly stale result.
+ */
+@Component
+public class TaskCache {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final boolean enabled;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder patches = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public TaskCache(@Value("${app.tasks.cache.enabled:true}") boolean enabled,
+                     @Value("${app.tasks.cache.max-users:10000}") int maxUsers,
+                     @Value("${app.tasks.cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(Math.max(1, maxUsers / SEGMENT_COUNT), Math.max(1, maxBytes / SEGMENT_COUNT));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Return the cached list of a user, loading it with the given loader on a miss.
+     * The returned list is unmodifiable and shared: callers must not modify its tasks.
+     */
+    public List<Task> get(Integer userId, Supplier<List<Task>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Segment segment = segmentFor(userId);
+        long version;
+        synchronized (segment) {
+            Entry entry = segment.entries.get(userId);
+            if (entry != null) {
+                hits.increment();
+                return entry.tasks;
+            }
+            version = segment.version;
+        }
+
+        misses.increment();
+        Entry loaded = new Entry(List.copyOf(loader.get()));
+        synchronized (segment) {
+            if (segment.version == version && !segment.entries.containsKey(userId)) {
+                segment.put(userId, loaded);
+            }
+        }
+        return loaded.tasks;
+    }
+
+    /**
+     * Return the cached list of a user without loading it, or null.
+     */
+    public List<Task> getIfPresent(Integer userId) {
+        if (!enabled) {
+            return null;
+        }
+        Segment segment = segmentFor(userId);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(userId);
+            if (entry != null) {
+                hits.increment();
+                return entry.tasks;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A task was created: put it at the head of its owner's list. A list loaded after
+     * the insert committed may already hold it, so any copy with the same id is dropped.
+     */
+    public void added(Task task) {
+        patch(task.getUserId(), tasks -> {
+            List<Task> result = new ArrayList<>(tasks.size() + 1);
+            result.add(task);
+            for (Task existing : tasks) {
+                if (!existing.getId().equals(task.getId())) {
+                    result.add(existing);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * A task was updated: replace it in its owner's list.
+     */
+    public void updated(Task task) {
+        patch(task.getUserId(), tasks -> replace(tasks, task.getId(), old -> {
+            Task updated = copy(task);
+            updated.setCreatedAt(old.getCreatedAt());
+            return updated;
+        }));
+    }
+
+    /**
+     * The completed flag of a task changed.
+     */
+    public void completed(Integer userId, Integer taskId, Integer completed) {
+        patch(userId, tasks -> replace(tasks, taskId, old -> {
+            Task updated = copy(old);
+            updated.setCompleted(completed);
+            return updated;
+        }));
+    }
+
+    /**
+     * A task was deleted: drop it from its owner's list.
+     */
+    public void removed(Integer userId, Integer taskId) {
+        patch(userId, tasks -> replace(tasks, taskId, old -> null));
+    }
+
+    /**
+     * Drop a user's list, e.g. after a bulk change.
+     */
+    public void invalidate(Integer userId) {
+        if (!enabled) {
+            return;
+        }
+        Segment segment = segmentFor(userId);
+        synchronized (segment) {
+            segment.version++;
+            segment.remove(userId);
+        }
+        invalidations.increment();
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long users = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                users += segment.entries.size();
+                bytes += segment.bytes;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hit_ratio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("patches", patches.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("users", users);
+        stats.put("estimated_bytes", bytes);
+        return stats;
+    }
+
+    private void patch(Integer userId, UnaryOperator<List<Task>> change) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Segment segment = segmentFor(userId);
+        synchronized (segment) {
+            segment.version++;
+            Entry entry = segment.entries.get(userId);
+            if (entry != null) {
+                segment.put(userId, new Entry(List.copyOf(change.apply(entry.tasks))));
+                patches.increment();
+            }
+        }
+    }
+
+    private static List<Task> replace(List<Task> tasks, Integer taskId, UnaryOperator<Task> change) {
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            if (task.getId().equals(taskId)) {
+                Task changed = change.apply(task);
+                if (changed != null) {
+                    result.add(changed);
+                }
+            } else {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private static Task copy(Task task) {
+        return new Task(task.getId(), task.getTitle(), task.getDescription(), task.getCategoryId(),
+                task.getUserId(), task.getDueDate(), task.getCompleted(), task.getCreatedAt());
+    }
+
+    private Segment segmentFor(Integer userId) {
+        int hash = userId.hashCode() * 0x9E3779B9;
+        return segments[(hash >>> 16) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static final class Entry {
+        final List<Task> tasks;
+        final long bytes;
+
+        Entry(List<Task> tasks) {
+            this.tasks = tasks;
+            long size = 64;
+            for (Task task : tasks) {
+                size += 96 + 2L * (length(task.getTitle()) + length(task.getDescription())
+                        + length(task.getDueDate()) + length(task.getCreatedAt()));
+            }
+            this.bytes = size;
+        }
+
+        private static int length(String value) {
+            return value != null ? value.length() : 0;
+        }
+    }
+
+    private final class Segment {
+        final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final int maxEntries;
+        final long maxBytes;
+        long bytes;
+        long version;
+
+        Segment(int maxEntries, long maxBytes) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+        }
+
+        void put(Integer userId, Entry entry) {
+            remove(userId);
+            if (entry.bytes > maxBytes) {
+                return;
+            }
+            entries.put(userId, entry);
+            bytes += entry.bytes;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().bytes;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        void remove(Integer userId) {
+            Entry old = entries.remove(userId);
+            if (old != null) {
+                bytes -= old.bytes;
+            }
+        }
+    }
+}
@@ -0,0 +1,716 @@
+package com.example.taskstodo.cache;
+
+import com.example.taskstodo.config.SchemaMigrator;
+import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskFilter;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-memory copy of the tasks table (app.tasks.memory.enabled), so that
+ * findById, findByUserId and findByUserIdAndCategoryId are answered without SQLite.
+ * SQLite stays the durable store: the copy is loaded at startup and every mutation in
+ * TaskRepository is applied to it after it reached the database (or the write-behind queue).
+ *
+ * Tasks are stored column-wise in primitive arrays indexed by slot: ids, owners and
+ * categories as int, due dates as epoch days, created_at as epoch seconds, the completed
+ * flag as a bit, and titles and descriptions as interned strings shared between equal
+ * values. Values the columns cannot represent exactly (a completed value other than 0/1,
+ * a due date or created_at that is not in SQLite's date format) are kept verbatim in
+ * small side maps, so reads return exactly what the database holds. An open-addressing
+ * id index and per-user slot lists, kept in (created_at, id) order, serve the lookups;
+ * reading a user's tasks allocates only the returned Task objects. Filters
+ * ({@link TaskFilter}) are answered from per-user bitmap indexes ({@link TaskBitmapIndex}).
+ *
+ * Readers share a read lock. Direct database writes run through {@link #write(Supplier)},
+ * which orders them with their memory update; write-behind mutations are applied when
+ * they are queued, like the read overlay of the queue.
+ */
+@Component
+public class TaskColumnStore {
+    private static final int NO_CATEGORY = Integer.MIN_VALUE;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int OTHER_DATE = Integer.MIN_VALUE + 1;
+    private static final long OTHER_TIME = Long.MIN_VALUE;
+    private static final int SECONDS_PER_DAY = 86400;
+    // Due dates between 1970 and 2199 share one String per day
+    private static final int DAY_TEXT_DAYS = (int) LocalDate.of(2200, 1, 1).toEpochDay();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final boolean enabled;
+    private final JdbcTemplate jdbc;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock writer = new ReentrantLock();
+    private final String[] dayText;
+
+    private int[] ids;
+    private int[] userIds;
+    private int[] categoryIds;
+    private int[] dueDays;
+    private long[] createdAts;
+    private String[] titles;
+    private String[] descriptions;
+    private BitSet completed;
+    private Map<Integer, Integer> otherCompleted;
+    private Map<Integer, String> otherDueDates;
+    private Map<Integer, String> otherCreatedAts;
+    private int slotCount;
+    private int[] freeSlots;
+    private int freeCount;
+    private IdIndex slotsById;
+    private Map<Integer, UserSlots> slotsByUser;
+    private TaskBitmapIndex bitmaps;
+    private long loadMillis;
+
+    public TaskColumnStore(JdbcTemplate jdbc, SchemaMigrator schemaMigrator,
+                           @Value("${app.tasks.memory.enabled:false}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.dayText = enabled ? new String[DAY_TEXT_DAYS] : null;
+        clear();
+        if (enabled) {
+            reload();
+            System.out.printf("✓ In-memory task store: %d tasks of %d users loaded in %d ms (~%d MB)%n",
+                    slotsById.size, slotsByUser.size(), loadMillis, estimatedBytes() >> 20);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Load every task from SQLite, replacing the current contents.
+     * For data written to the database without TaskRepository, e.g. bulk seeding.
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        writer.lock();
+        try {
+            long start = System.nanoTime();
+            lock.writeLock().lock();
+            try {
+                clear();
+                jdbc.query("SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
+                                "FROM tasks ORDER BY user_id, created_at, id",
+                        (RowCallbackHandler) rs -> insert(new Task(
+                                rs.getInt("id"),
+                                rs.getString("title"),
+                                rs.getString("description"),
+                                rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
+                                rs.getInt("user_id"),
+                                rs.getString("due_date"),
+                                rs.getInt("completed"),
+                                rs.getString("created_at"))));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadMillis = (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Run a database write and the matching memory update (called from inside it) as one
+     * step with respect to other writes, so the copy ends up in the same order as SQLite.
+     * Just runs the write when the store is disabled.
+     */
+    public <T> T write(Supplier<T> databaseWrite) {
+        if (!enabled) {
+            return databaseWrite.get();
+        }
+        writer.lock();
+        try {
+            return databaseWrite.get();
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * All tasks of a user, newest first (created_at DESC, id DESC), like the SQL query.
+     */
+    public List<Task> findByUserId(int userId) {
+        lock.readLock().lock();
+        try {
+            UserSlots slots = slotsByUser.get(userId);
+            if (slots == null) {
+                return new ArrayList<>();
+            }
+            List<Task> tasks = new ArrayList<>(slots.size);
+            for (int i = slots.size - 1; i >= 0; i--) {
+                tasks.add(materialize(slots.slots[i]));
+            }
+            return tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A user's tasks in one category, newest first.
+     */
+    public List<Task> findByUserIdAndCategoryId(int userId, int categoryId) {
+        lock.readLock().lock();
+        try {
+            UserSlots slots = slotsByUser.get(userId);
+            List<Task> tasks = new ArrayList<>();
+            if (slots == null) {
+                return tasks;
+            }
+            for (int i = slots.size - 1; i >= 0; i--) {
+                int slot = slots.slots[i];
+                if (categoryIds[slot] == categoryId) {
+                    tasks.add(materialize(slot));
+                }
+            }
+            return tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A user's tasks matching a filter, newest first.
+     */
+    public List<Task> filter(int userId, TaskFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = bitmaps.filter(userId, filter, NO_CATEGORY);
+            UserSlots slots = slotsByUser.get(userId);
+            List<Task> tasks = new ArrayList<>(matches.getCardinality());
+            if (slots == null || matches.isEmpty()) {
+                return tasks;
+            }
+            if (matches.getCardinality() * 8L >= slots.size) {
+                // Large result: walk the user's ordered slots instead of sorting
+                for (int i = slots.size - 1; i >= 0; i--) {
+                    if (matches.contains(slots.slots[i])) {
+                        tasks.add(materialize(slots.slots[i]));
+                    }
+                }
+                return tasks;
+            }
+            Integer[] ordered = new Integer[matches.getCardinality()];
+            int count = 0;
+            for (int slot : matches) {
+                ordered[count++] = slot;
+            }
+            Arrays.sort(ordered, (a, b) -> slots.compare(b, a));
+            for (int slot : ordered) {
+                tasks.add(materialize(slot));
+            }
+            return tasks;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the task, or null if there is none with this id
+     */
+    public Task findById(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot >= 0 ? materialize(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the owner of a task, or null if there is none with this id
+     */
+    public Integer ownerOf(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot >= 0 ? userIds[slot] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A task was created (the row as stored, with id and created_at).
+     */
+    public void added(Task task) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(task.getId());
+            insert(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A task's editable fields changed; owner and created_at stay as they are.
+     */
+    public void updated(Task task) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(task.getId());
+            if (slot >= 0) {
+                index(slot, false);
+                setFields(slot, task);
+                index(slot, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The completed flag of a task changed.
+     */
+    public void completed(int id, Integer value) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot >= 0) {
+                index(slot, false);
+                setCompleted(slot, value);
+                index(slot, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A task was deleted.
+     */
+    public void removed(int id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        if (!enabled) {
+            return stats;
+        }
+        lock.readLock().lock();
+        try {
+            stats.put("tasks", slotsById.size);
+            stats.put("users", slotsByUser.size());
+            stats.put("capacity", ids.length);
+            stats.put("irregular_values", otherCompleted.size() + otherDueDates.size() + otherCreatedAts.size());
+            stats.put("estimated_bytes", estimatedBytes());
+            stats.put("bitmap_bytes", bitmaps.sizeInBytes());
+            stats.put("load_ms", loadMillis);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private void clear() {
+        ids = new int[INITIAL_CAPACITY];
+        userIds = new int[INITIAL_CAPACITY];
+        categoryIds = new int[INITIAL_CAPACITY];
+        dueDays = new int[INITIAL_CAPACITY];
+        createdAts = new long[INITIAL_CAPACITY];
+        titles = new String[INITIAL_CAPACITY];
+        descriptions = new String[INITIAL_CAPACITY];
+        completed = new BitSet(INITIAL_CAPACITY);
+        otherCompleted = new HashMap<>();
+        otherDueDates = new HashMap<>();
+        otherCreatedAts = new HashMap<>();
+        slotCount = 0;
+        freeSlots = new int[16];
+        freeCount = 0;
+        slotsById = new IdIndex();
+        slotsByUser = new HashMap<>();
+        bitmaps = new TaskBitmapIndex();
+    }
+
+    private void insert(Task task) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+        ids[slot] = task.getId();
+        userIds[slot] = task.getUserId();
+        setCreatedAt(slot, task.getCreatedAt());
+        setFields(slot, task);
+        slotsById.put(task.getId(), slot);
+        slotsByUser.computeIfAbsent(task.getUserId(), userId -> new UserSlots()).insert(slot);
+        index(slot, true);
+    }
+
+    private void remove(int id) {
+        int slot = slotsById.remove(id);
+        if (slot < 0) {
+            return;
+        }
+        index(slot, false);
+        UserSlots slots = slotsByUser.get(userIds[slot]);
+        slots.remove(slot);
+        if (slots.size == 0) {
+            slotsByUser.remove(userIds[slot]);
+        }
+        titles[slot] = null;
+        descriptions[slot] = null;
+        completed.clear(slot);
+        otherCompleted.remove(slot);
+        otherDueDates.remove(slot);
+        otherCreatedAts.remove(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Add a slot to the bitmap indexes, or remove it with the values it was added with.
+     */
+    private void index(int slot, boolean add) {
+        boolean done = completed.get(slot) || !otherCompleted.isEmpty() && otherCompleted.containsKey(slot);
+        int dueDay = switch (dueDays[slot]) {
+            case NO_DATE -> TaskBitmapIndex.NO_DAY;
+            case OTHER_DATE -> orNoDay(TaskFilter.day(otherDueDates.get(slot)));
+            default -> dueDays[slot];
+        };
+        int createdDay = createdAts[slot] == OTHER_TIME
+                ? orNoDay(TaskFilter.day(otherCreatedAts.get(slot)))
+                : (int) Math.floorDiv(createdAts[slot], SECONDS_PER_DAY);
+        if (add) {
+            bitmaps.add(userIds[slot], slot, done, categoryIds[slot], dueDay, createdDay);
+        } else {
+            bitmaps.remove(userIds[slot], slot, done, categoryIds[slot], dueDay, createdDay);
+        }
+    }
+
+    private static int orNoDay(Integer day) {
+        return day != null ? day : TaskBitmapIndex.NO_DAY;
+    }
+
+    private int nextSlot() {
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+            createdAts = Arrays.copyOf(createdAts, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void setFields(int slot, Task task) {
+        titles[slot] = task.getTitle() != null ? task.getTitle().intern() : null;
+        descriptions[slot] = task.getDescription() != null ? task.getDescription().intern() : null;
+        categoryIds[slot] = task.getCategoryId() != null ? task.getCategoryId() : NO_CATEGORY;
+        setDueDate(slot, task.getDueDate());
+        setCompleted(slot, task.getCompleted());
+    }
+
+    /**
+     * NULL reads back as 0 from the database (TaskRepository maps completed with getInt).
+     */
+    private void setCompleted(int slot, Integer value) {
+        int flag = value != null ? value : 0;
+        completed.set(slot, flag == 1);
+        if (flag == 0 || flag == 1) {
+            otherCompleted.remove(slot);
+        } else {
+            otherCompleted.put(slot, flag);
+        }
+    }
+
+    private void setDueDate(int slot, String dueDate) {
+        otherDueDates.remove(slot);
+        if (dueDate == null) {
+            dueDays[slot] = NO_DATE;
+            return;
+        }
+        int day = parseDay(dueDate);
+        if (day == OTHER_DATE) {
+            otherDueDates.put(slot, dueDate);
+        }
+        dueDays[slot] = day;
+    }
+
+    private void setCreatedAt(int slot, String createdAt) {
+        otherCreatedAts.remove(slot);
+        long seconds = parseTimestamp(createdAt);
+        if (seconds == OTHER_TIME && createdAt != null) {
+            otherCreatedAts.put(slot, createdAt);
+        }
+        createdAts[slot] = seconds;
+    }
+
+    private Task materialize(int slot) {
+        int completedValue = completed.get(slot) ? 1 : 0;
+        if (!otherCompleted.isEmpty()) {
+            completedValue = otherCompleted.getOrDefault(slot, completedValue);
+        }
+        return new Task(ids[slot], titles[slot], descriptions[slot],
+                categoryIds[slot] != NO_CATEGORY ? categoryIds[slot] : null,
+                userIds[slot], dueDate(slot), completedValue, createdAt(slot));
+    }
+
+    private String dueDate(int slot) {
+        int day = dueDays[slot];
+        if (day == NO_DATE) {
+            return null;
+        }
+        if (day == OTHER_DATE) {
+            return otherDueDates.get(slot);
+        }
+        return dayText(day);
+    }
+
+    private String createdAt(int slot) {
+        long seconds = createdAts[slot];
+        if (seconds == OTHER_TIME) {
+            return otherCreatedAts.get(slot);
+        }
+        int day = (int) Math.floorDiv(seconds, SECONDS_PER_DAY);
+        int time = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+        char[] text = new char[19];
+        dayText(day).getChars(0, 10, text, 0);
+        text[10] = ' ';
+        digits(text, 11, time / 3600);
+        text[13] = ':';
+        digits(text, 14, time / 60 % 60);
+        text[16] = ':';
+        digits(text, 17, time % 60);
+        return new String(text);
+    }
+
+    /**
+     * The yyyy-MM-dd text of a day; shared per day when the day is in range.
+     */
+    private String dayText(int day) {
+        if (day < 0 || day >= DAY_TEXT_DAYS) {
+            return LocalDate.ofEpochDay(day).toString();
+        }
+        String text = dayText[day];
+        if (text == null) {
+            // Benign race under the read lock: both threads compute the same value
+            text = LocalDate.ofEpochDay(day).toString();
+            dayText[day] = text;
+        }
+        return text;
+    }
+
+    private static void digits(char[] text, int at, int value) {
+        text[at] = (char) ('0' + value / 10);
+        text[at + 1] = (char) ('0' + value % 10);
+    }
+
+    /**
+     * Epoch day of a yyyy-MM-dd date whose text round-trips, else OTHER_DATE.
+     */
+    private static int parseDay(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return OTHER_DATE;
+        }
+        try {
+            LocalDate date = LocalDate.parse(text);
+            long day = date.toEpochDay();
+            return day > OTHER_DATE && day <= Integer.MAX_VALUE ? (int) day : OTHER_DATE;
+        } catch (DateTimeException e) {
+            return OTHER_DATE;
+        }
+    }
+
+    /**
+     * Epoch seconds of a "yyyy-MM-dd HH:mm:ss" timestamp (SQLite datetime()), else OTHER_TIME.
+     */
+    private static long parseTimestamp(String text) {
+        if (text == null || text.length() != 19 || text.charAt(10) != ' ' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return OTHER_TIME;
+        }
+        int day = parseDay(text.substring(0, 10));
+        int hours = twoDigits(text, 11);
+        int minutes = twoDigits(text, 14);
+        int seconds = twoDigits(text, 17);
+        if (day == OTHER_DATE || hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+            return OTHER_TIME;
+        }
+        return (long) day * SECONDS_PER_DAY + hours * 3600 + minutes * 60 + seconds;
+    }
+
+    private static int twoDigits(String text, int at) {
+        char high = text.charAt(at);
+        char low = text.charAt(at + 1);
+        if (high < '0' || high > '9' || low < '0' || low > '9') {
+            return -1;
+        }
+        return (high - '0') * 10 + (low - '0');
+    }
+
+    private long estimatedBytes() {
+        long perSlot = 4L * 4 + 8 + 2L * 8;
+        long bytes = ids.length * perSlot + ids.length / 8 + slotsById.keys.length * 8L;
+        for (UserSlots slots : slotsByUser.values()) {
+            bytes += 48 + slots.slots.length * 4L;
+        }
+        return bytes;
+    }
+
+    /**
+     * Slots of one user's tasks, ascending by (created_at, id): the lists are read
+     * backwards for newest first, and new tasks usually go at the end.
+     */
+    private final class UserSlots {
+        int[] slots = new int[4];
+        int size;
+
+        void insert(int slot) {
+            int at = size;
+            while (at > 0 && compare(slots[at - 1], slot) > 0) {
+                at--;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (slots[i] == slot) {
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        int compare(int a, int b) {
+            int byTime = Long.compare(createdAts[a], createdAts[b]);
+            if (byTime == 0 && createdAts[a] == OTHER_TIME) {
+                // Not in SQLite's format (or null): fall back to text order, nulls first
+                String textA = otherCreatedAts.get(a);
+                String textB = otherCreatedAts.get(b);
+                byTime = textA == null ? (textB == null ? 0 : -1) : (textB == null ? 1 : textA.compareTo(textB));
+            }
+            return byTime != 0 ? byTime : Integer.compare(ids[a], ids[b]);
+        }
+    }
+
+    /**
+     * Task id to slot, open addressing with linear probing. Ids are positive (SQLite
+     * rowids), so 0 marks an empty bucket.
+     */
+    private static final class IdIndex {
+        int[] keys = new int[2 * INITIAL_CAPACITY];
+        int[] values = new int[2 * INITIAL_CAPACITY];
+        int size;
+
+        int get(int id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == id) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(int id, int slot) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (keys[i] != 0 && keys[i] != id) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                size++;
+            }
+            keys[i] = id;
+            values[i] = slot;
+        }
+
+        /**
+         * @return the slot the id had, or -1
+         */
+        int remove(int id) {
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (keys[i] != id) {
+                if (keys[i] == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int slot = values[i];
+            size--;
+            // Shift later entries of the probe run back so lookups never stop at the hole
+            int hole = i;
+            for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = 0;
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(int id) {
+            int h = id * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.taskstodo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead in front of a Hikari pool: a fair semaphore with one permit per pooled
+ * connection, taken in getConnection() and given back when the connection is closed.
+ *
+ * With request handling on virtual threads there can be thousands of requests
+ * wanting the database at once. They wait here, parked on the semaphore in FIFO
+ * order, instead of inside the pool or the SQLite driver (which holds monitors
+ * during native calls and would pin carrier threads). At most max-waiting callers
+ * queue; beyond that, or after the pool's connection timeout, getConnection()
+ * fails right away just like a Hikari timeout would.
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements Closeable {
+    private final String name;
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long timeoutMs;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public BulkheadDataSource(HikariDataSource pool, int maxWaiting) {
+        super(pool);
+        this.name = pool.getPoolName();
+        this.permits = new Semaphore(pool.getMaximumPoolSize(), true);
+        this.maxWaiting = maxWaiting;
+        this.timeoutMs = pool.getConnectionTimeout();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Callers currently queued for a permit.
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        ((HikariDataSource) obtainTargetDataSource()).close();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            // Timed even without waiting: the untimed tryAcquire() barges ahead of queued callers
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                throw new SQLTransientConnectionException(name + " - bulkhead full, " + maxWaiting + " callers already waiting");
+            }
+            try {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(name + " - no connection available after " + timeoutMs + "ms");
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(name + " - interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Wrap a pooled connection so that closing it releases the permit, exactly once.
+     */
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invoke(connection, method, args);
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(BulkheadDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
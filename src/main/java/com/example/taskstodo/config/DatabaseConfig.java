@@ -0,0 +1,96 @@
+package com.example.taskstodo.config;
+
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * SQLite data access configuration.
+ *
+ * Two pools share the same database file:
+ * - dataSource / jdbcTemplate (primary): read pool, used by every query
+ * - writeDataSource / writeJdbcTemplate: single writer connection, used by every mutation
+ *
+ * Each pool sits behind a BulkheadDataSource with one permit per connection, so callers
+ * beyond the pool size park on a semaphore (cheap for virtual threads) and at most
+ * app.sqlite.max-waiting of them queue per pool.
+ *
+ * Both JdbcTemplates time every statement (db.sql, db.sql.rows) and both pools report
+ * their connection wait (hikaricp.connections.acquire) to the meter registry.
+ *
+ * Tuning lives under app.sqlite.* in application.properties.
+ */
+@Configuration
+public class DatabaseConfig {
+
+    @Bean
+    public SqliteDataSourceFactory sqliteDataSourceFactory(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${app.sqlite.busy-timeout-ms:5000}") int busyTimeoutMs,
+            @Value("${app.sqlite.synchronous:NORMAL}") String synchronous,
+            @Value("${app.sqlite.mmap-size:268435456}") long mmapSize,
+            MeterRegistry meterRegistry) {
+        SqliteDataSourceFactory factory = new SqliteDataSourceFactory(url, busyTimeoutMs, synchronous, mmapSize);
+        factory.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(SqliteDataSourceFactory factory,
+                                 @Value("${app.sqlite.read-pool-size:8}") int readPoolSize,
+                                 @Value("${app.sqlite.max-waiting:10000}") int maxWaiting,
+                                 MeterRegistry meterRegistry) {
+        return bulkhead(new BulkheadDataSource(factory.createReadPool(readPoolSize), maxWaiting), meterRegistry);
+    }
+
+    @Bean
+    public DataSource writeDataSource(SqliteDataSourceFactory factory,
+                                      @Value("${app.sqlite.writer-queue-timeout-ms:30000}") long queueTimeoutMs,
+                                      @Value("${app.sqlite.max-waiting:10000}") int maxWaiting,
+                                      MeterRegistry meterRegistry) {
+        return bulkhead(new BulkheadDataSource(factory.createWriter(queueTimeoutMs), maxWaiting), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, MeterRegistry meterRegistry) {
+        return new MeteredJdbcTemplate(dataSource, meterRegistry, "sqlite-read");
+    }
+
+    @Bean
+    public JdbcTemplate writeJdbcTemplate(@Qualifier("writeDataSource") DataSource writeDataSource,
+                                          MeterRegistry meterRegistry) {
+        return new MeteredJdbcTemplate(writeDataSource, meterRegistry, "sqlite-write");
+    }
+
+    /**
+     * Transactions that span several statements on the writer connection.
+     */
+    @Bean
+    public TransactionTemplate writeTransactionTemplate(@Qualifier("writeDataSource") DataSource writeDataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(writeDataSource));
+    }
+
+    private static BulkheadDataSource bulkhead(BulkheadDataSource bulkhead, MeterRegistry meterRegistry) {
+        Gauge.builder("sqlite.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaiting)
+                .description("Callers queued for a database connection")
+                .tag("pool", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("sqlite.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                .description("Connections free to hand out")
+                .tag("pool", bulkhead.getName())
+                .register(meterRegistry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.taskstodo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * JdbcTemplate that records a timer and a row count for every SQL statement.
+ *
+ * Overrides the few methods every query, update and batch funnels through, so
+ * callers keep using the regular JdbcTemplate API. Meters:
+ * - db.sql (timer, tags pool, sql, outcome): from connection checkout to the last
+ *   row mapped, so it includes the wait for a pooled connection
+ * - db.sql.rows (summary, tags pool, sql): rows returned, or rows changed by updates
+ *
+ * Statements are constants with ? placeholders, so the sql tag stays bounded.
+ * Meters are looked up once per statement and kept in a map; the hot path is one
+ * map read, two nanoTime calls and the meter updates.
+ */
+public class MeteredJdbcTemplate extends JdbcTemplate {
+    private static final int MAX_SQL_TAG_LENGTH = 256;
+    private static final String CONNECTION_CALLBACK = "<connection callback>";
+
+    private final MeterRegistry registry;
+    private final String pool;
+    private final ConcurrentMap<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    public MeteredJdbcTemplate(DataSource dataSource, MeterRegistry registry, String pool) {
+        super(dataSource);
+        this.registry = registry;
+        this.pool = pool;
+    }
+
+    @Override
+    public <T> T query(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss,
+                       ResultSetExtractor<T> rse) throws DataAccessException {
+        return timed(sqlOf(psc), () -> super.query(psc, pss, rse), result -> rows(rse, result));
+    }
+
+    @Override
+    public <T> T query(String sql, ResultSetExtractor<T> rse) throws DataAccessException {
+        return timed(sql, () -> super.query(sql, rse), result -> rows(rse, result));
+    }
+
+    @Override
+    public void query(String sql, @Nullable PreparedStatementSetter pss, RowCallbackHandler rch) throws DataAccessException {
+        query(sql, pss, new CountingRowCallback(rch));
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch) throws DataAccessException {
+        query(sql, new CountingRowCallback(rch));
+    }
+
+    @Override
+    protected int update(PreparedStatementCreator psc, @Nullable PreparedStatementSetter pss) throws DataAccessException {
+        return timed(sqlOf(psc), () -> super.update(psc, pss), Integer::longValue);
+    }
+
+    @Override
+    public int update(String sql) throws DataAccessException {
+        return timed(sql, () -> super.update(sql), Integer::longValue);
+    }
+
+    @Override
+    public void execute(String sql) throws DataAccessException {
+        timed(sql, () -> {
+            super.execute(sql);
+            return null;
+        }, result -> 0);
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) throws DataAccessException {
+        return timed(sql, () -> super.batchUpdate(sql, pss), counts -> {
+            long total = 0;
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+            return total;
+        });
+    }
+
+    @Override
+    public <T> T execute(ConnectionCallback<T> action) throws DataAccessException {
+        return timed(CONNECTION_CALLBACK, () -> super.execute(action), result -> rows(null, result));
+    }
+
+    private <T> T timed(String sql, Supplier<T> call, ToLongFunction<T> rowCount) {
+        StatementMeters statement = meters.computeIfAbsent(sql, this::register);
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            statement.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            statement.rows.record(rowCount.applyAsLong(result));
+            return result;
+        } catch (RuntimeException | Error e) {
+            statement.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private static long rows(@Nullable Object extractor, @Nullable Object result) {
+        if (extractor instanceof CountingRowCallback) {
+            return ((CountingRowCallback) extractor).rows;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return result != null ? 1 : 0;
+    }
+
+    private static String sqlOf(PreparedStatementCreator psc) {
+        return psc instanceof SqlProvider && ((SqlProvider) psc).getSql() != null
+                ? ((SqlProvider) psc).getSql()
+                : psc.getClass().getSimpleName();
+    }
+
+    private StatementMeters register(String sql) {
+        String tag = sql.replaceAll("\\s+", " ").trim();
+        if (tag.length() > MAX_SQL_TAG_LENGTH) {
+            tag = tag.substring(0, MAX_SQL_TAG_LENGTH) + "...";
+        }
+        return new StatementMeters(tag,
+                timer(tag, "success"),
+                DistributionSummary.builder("db.sql.rows")
+                        .description("Rows returned or changed per SQL statement")
+                        .baseUnit("rows")
+                        .tag("pool", pool)
+                        .tag("sql", tag)
+                        .register(registry));
+    }
+
+    private Timer timer(String sql, String outcome) {
+        return Timer.builder("db.sql")
+                .description("SQL statement latency, including the wait for a connection")
+                .tag("pool", pool)
+                .tag("sql", sql)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private final class StatementMeters {
+        final String sql;
+        final Timer success;
+        final DistributionSummary rows;
+        // Registered on the first failure, so healthy statements export a single series
+        volatile Timer error;
+
+        StatementMeters(String sql, Timer success, DistributionSummary rows) {
+            this.sql = sql;
+            this.success = success;
+            this.rows = rows;
+        }
+
+        Timer error() {
+            Timer timer = error;
+            if (timer == null) {
+                timer = timer(sql, "error");
+                error = timer;
+            }
+            return timer;
+        }
+    }
+
+    /**
+     * Runs a RowCallbackHandler over the ResultSet and counts the rows it saw.
+     */
+    private static final class CountingRowCallback implements ResultSetExtractor<Object> {
+        private final RowCallbackHandler handler;
+        private long rows;
+
+        CountingRowCallback(RowCallbackHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public Object extractData(ResultSet rs) throws SQLException {
+            while (rs.next()) {
+                handler.processRow(rs);
+                rows++;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.taskstodo.config;
+
+import com.example.taskstodo.model.Category;
+import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskChanges;
+import com.example.taskstodo.model.TaskSearchResult;
+import com.example.taskstodo.model.TaskStats;
+import com.example.taskstodo.model.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * Runtime hints for the native image (native Maven profile), for what Spring AOT
+ * cannot infer from the code:
+ * - JSON models: controllers return ResponseEntity&lt;?&gt; and Category is serialized
+ *   ahead of time, so the types Jackson writes must be registered for reflection.
+ *   Request bodies are Map/List of JDK types, which Jackson builds without reflection.
+ * - BulkheadDataSource wraps pooled connections in a JDK proxy of Connection.
+ * - The frontend under static/ (pages, assets/ and their .br/.gz variants) is served
+ *   from the classpath.
+ *
+ * sqlite-jdbc brings its own native-image feature: it registers the JNI methods and
+ * embeds the native library of the build platform, extracted on first connection.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Task.class, TaskStats.class, TaskStats.CategoryCount.class, TaskSearchResult.class,
+                TaskChanges.class, Category.class, User.class);
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.resources().registerPattern("static/*");
+        hints.resources().registerPattern("static/assets/*");
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.taskstodo.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Versioned schema migrations for the SQLite database.
+ *
+ * The current version is kept in PRAGMA user_version (stored in the database header,
+ * so reading it costs no table lookup). On startup every migration newer than that
+ * version runs in its own transaction together with the version bump, so a failed
+ * migration leaves the schema at the previous version. An up-to-date database only
+ * pays for one PRAGMA read and PRAGMA optimize.
+ *
+ * Migrations run while the bean is initialized, before the web server accepts
+ * requests, so caches and other startup readers never see a half-built schema.
+ *
+ * Migrations are append-only: never edit a released one, add a new version instead.
+ */
+@Component
+public class SchemaMigrator implements InitializingBean {
+
+    /**
+     * Characters that separate words besides spaces, turned into spaces before the owner
+     * prefix is added. Other punctuation still splits tokens, but the part after it is
+     * left unscoped and so cannot be searched. SQLite limits how deeply replace() calls can
+     * nest, which keeps this list short. Part of migration 4: do not change.
+     */
+    private static final String[] WORD_SEPARATORS = {
+            "','", "'.'", "';'", "':'", "'!'", "'?'", "'('", "')'", "'\"'", "''''", "'/'", "'-'",
+            "char(9)", "char(10)", "char(13)"
+    };
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "baseline tables and default categories",
+                    "CREATE TABLE IF NOT EXISTS users (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "username TEXT NOT NULL UNIQUE, " +
+                            "password TEXT NOT NULL, " +
+                            "created_at TEXT DEFAULT (datetime('now'))" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS categories (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "name TEXT NOT NULL UNIQUE" +
+                            ")",
+                    "CREATE TABLE IF NOT EXISTS tasks (" +
+                            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "title TEXT NOT NULL, " +
+                            "description TEXT, " +
+                            "category_id INTEGER, " +
+                            "user_id INTEGER NOT NULL, " +
+                            "due_date TEXT, " +
+                            "completed INTEGER DEFAULT 0, " +
+                            "created_at TEXT DEFAULT (datetime('now')), " +
+                            "FOREIGN KEY(category_id) REFERENCES categories(id), " +
+                            "FOREIGN KEY(user_id) REFERENCES users(id)" +
+                            ")",
+                    "INSERT OR IGNORE INTO categories (name) VALUES ('Estudo'), ('Trabalho'), ('Pessoal'), ('Urgente')"),
+            new Migration(2, "indexes for task listing and login",
+                    // WHERE user_id = ? ORDER BY created_at DESC, id DESC (full list and keyset pages)
+                    "CREATE INDEX IF NOT EXISTS idx_tasks_user_created ON tasks (user_id, created_at DESC, id DESC)",
+                    // WHERE user_id = ? AND category_id = ? ORDER BY created_at DESC, id DESC
+                    "CREATE INDEX IF NOT EXISTS idx_tasks_user_category ON tasks (user_id, category_id, created_at DESC, id DESC)",
+                    // Login reads id and password by username straight from the index
+                    "CREATE INDEX IF NOT EXISTS idx_users_login ON users (username, password, id)"),
+            new Migration(3, "indexed due day for calendar range queries",
+                    // Days since 1970-01-01 of the date part of due_date (NULL when absent or not a date).
+                    // A generated column keeps it in sync with every write path without touching the SQL.
+                    "ALTER TABLE tasks ADD COLUMN due_day INTEGER GENERATED ALWAYS AS " +
+                            "(CAST(julianday(substr(due_date, 1, 10)) - 2440587.5 AS INTEGER)) VIRTUAL",
+                    // WHERE user_id = ? AND due_day BETWEEN ? AND ?
+                    "CREATE INDEX IF NOT EXISTS idx_tasks_user_due_day ON tasks (user_id, due_day) WHERE due_day IS NOT NULL"),
+            new Migration(4, "full-text search index over task titles and descriptions",
+                    // Search terms scoped to the owner: every word becomes u<user_id>x<word>, so each
+                    // user has their own posting lists and a search never reads other users' entries.
+                    "ALTER TABLE tasks ADD COLUMN title_terms TEXT GENERATED ALWAYS AS (" + scopedTerms("title") + ") VIRTUAL",
+                    "ALTER TABLE tasks ADD COLUMN description_terms TEXT GENERATED ALWAYS AS (" + scopedTerms("description") + ") VIRTUAL",
+                    // External-content FTS5 index over those columns: only the index is stored
+                    "CREATE VIRTUAL TABLE IF NOT EXISTS tasks_fts USING fts5(" +
+                            "title_terms, description_terms, content='tasks', content_rowid='id', " +
+                            "tokenize='unicode61 remove_diacritics 2')",
+                    "CREATE TRIGGER IF NOT EXISTS tasks_fts_insert AFTER INSERT ON tasks BEGIN " +
+                            "INSERT INTO tasks_fts (rowid, title_terms, description_terms) " +
+                            "VALUES (new.id, new.title_terms, new.description_terms); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS tasks_fts_delete AFTER DELETE ON tasks BEGIN " +
+                            "INSERT INTO tasks_fts (tasks_fts, rowid, title_terms, description_terms) " +
+                            "VALUES ('delete', old.id, old.title_terms, old.description_terms); " +
+                            "END",
+                    // Only text or owner changes touch the index; toggling completed does not
+                    "CREATE TRIGGER IF NOT EXISTS tasks_fts_update AFTER UPDATE OF title, description, user_id ON tasks BEGIN " +
+                            "INSERT INTO tasks_fts (tasks_fts, rowid, title_terms, description_terms) " +
+                            "VALUES ('delete', old.id, old.title_terms, old.description_terms); " +
+                            "INSERT INTO tasks_fts (rowid, title_terms, description_terms) " +
+                            "VALUES (new.id, new.title_terms, new.description_terms); " +
+                            "END",
+                    "INSERT INTO tasks_fts (tasks_fts) VALUES ('rebuild')"),
+            new Migration(5, "task change log for incremental sync",
+                    // One row per task write; rev is never reused, so it grows monotonically for every user
+                    "CREATE TABLE IF NOT EXISTS task_changes (" +
+                            "rev INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                            "user_id INTEGER NOT NULL, " +
+                            "task_id INTEGER NOT NULL, " +
+                            "deleted INTEGER NOT NULL DEFAULT 0, " +
+                            "changed_at TEXT NOT NULL DEFAULT (datetime('now'))" +
+                            ")",
+                    // WHERE user_id = ? AND rev > ? (sync)
+                    "CREATE INDEX IF NOT EXISTS idx_task_changes_user_rev ON task_changes (user_id, rev)",
+                    // Newer entries of the same task (compaction)
+                    "CREATE INDEX IF NOT EXISTS idx_task_changes_task_rev ON task_changes (task_id, rev)",
+                    "CREATE INDEX IF NOT EXISTS idx_task_changes_tombstones ON task_changes (changed_at) WHERE deleted = 1",
+                    // Per user, the newest tombstone dropped by compaction: older revisions cannot be synced
+                    "CREATE TABLE IF NOT EXISTS task_change_horizons (" +
+                            "user_id INTEGER PRIMARY KEY, " +
+                            "rev INTEGER NOT NULL" +
+                            ")",
+                    // Triggers write the log in the transaction of the task write, whichever path made it
+                    "CREATE TRIGGER IF NOT EXISTS tasks_changes_insert AFTER INSERT ON tasks BEGIN " +
+                            "INSERT INTO task_changes (user_id, task_id) VALUES (new.user_id, new.id); " +
+                            "END",
+                    "CREATE TRIGGER IF NOT EXISTS tasks_changes_delete AFTER DELETE ON tasks BEGIN " +
+                            "INSERT INTO task_changes (user_id, task_id, deleted) VALUES (old.user_id, old.id, 1); " +
+                            "END",
+                    // Updates that change nothing (e.g. setting completed to its value) are not logged
+                    "CREATE TRIGGER IF NOT EXISTS tasks_changes_update AFTER UPDATE ON tasks " +
+                            "WHEN old.title IS NOT new.title OR old.description IS NOT new.description " +
+                            "OR old.category_id IS NOT new.category_id OR old.user_id IS NOT new.user_id " +
+                            "OR old.due_date IS NOT new.due_date OR old.completed IS NOT new.completed " +
+                            "OR old.created_at IS NOT new.created_at BEGIN " +
+                            "INSERT INTO task_changes (user_id, task_id, deleted) " +
+                            "SELECT old.user_id, old.id, 1 WHERE old.user_id IS NOT new.user_id; " +
+                            "INSERT INTO task_changes (user_id, task_id) VALUES (new.user_id, new.id); " +
+                            "END",
+                    // Existing tasks start with one entry each, so syncing from revision 0 returns them all
+                    "INSERT INTO task_changes (user_id, task_id) SELECT user_id, id FROM tasks ORDER BY id"),
+            new Migration(6, "drop the covering login index",
+                    // It duplicated the UNIQUE(username) index and kept a second copy of every password
+                    // hash, rewritten on each rehash, to save one rowid lookup per login
+                    "DROP INDEX IF EXISTS idx_users_login")
+    );
+
+    /**
+     * SQL expression with the owner-scoped search terms of a text column (migration 4).
+     */
+    private static String scopedTerms(String column) {
+        String text = "' ' || " + column;
+        for (String separator : WORD_SEPARATORS) {
+            text = "replace(" + text + ", " + separator + ", ' ')";
+        }
+        return "replace(" + text + ", ' ', ' u' || user_id || 'x')";
+    }
+
+    private final JdbcTemplate writeJdbc;
+    private final TransactionTemplate writeTransaction;
+    private volatile boolean migrated;
+
+    public SchemaMigrator(@Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                          @Qualifier("writeTransactionTemplate") TransactionTemplate writeTransaction) {
+        this.writeJdbc = writeJdbc;
+        this.writeTransaction = writeTransaction;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        migrate();
+    }
+
+    /**
+     * Bring the schema up to the latest version. Safe to call more than once.
+     *
+     * @return the schema version after migrating
+     */
+    public synchronized int migrate() {
+        int version = currentVersion();
+        if (migrated) {
+            return version;
+        }
+
+        boolean applied = false;
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= version) {
+                continue;
+            }
+            writeTransaction.executeWithoutResult(status -> {
+                for (String statement : migration.statements) {
+                    writeJdbc.execute(statement);
+                }
+                writeJdbc.execute("PRAGMA user_version = " + migration.version);
+            });
+            System.out.println("✓ Migration " + migration.version + " applied: " + migration.description);
+            version = migration.version;
+            applied = true;
+        }
+
+        // Refresh planner statistics after schema changes; otherwise let SQLite decide
+        if (applied) {
+            writeJdbc.execute("ANALYZE");
+        }
+        writeJdbc.execute("PRAGMA optimize");
+        migrated = true;
+        return version;
+    }
+
+    public int currentVersion() {
+        Integer version = writeJdbc.queryForObject("PRAGMA user_version", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final List<String> statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+    }
+}
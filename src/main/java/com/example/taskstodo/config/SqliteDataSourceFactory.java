@@ -0,0 +1,86 @@
+package com.example.taskstodo.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+/**
+ * Builds pooled SQLite DataSources tuned for concurrent access.
+ *
+ * Every connection runs in WAL journal mode, so readers never block behind the writer
+ * and the writer never waits for readers. Reads go through a regular pool of
+ * query-only connections. All mutations go through a single writer connection:
+ * Hikari hands it out to one caller at a time and queues the rest, which replaces
+ * SQLITE_BUSY retries with an ordered wait.
+ */
+public class SqliteDataSourceFactory {
+    private final String url;
+    private final int busyTimeoutMs;
+    private final String synchronous;
+    private final long mmapSize;
+    private MetricsTrackerFactory metricsTrackerFactory;
+
+    public SqliteDataSourceFactory(String url, int busyTimeoutMs, String synchronous, long mmapSize) {
+        this.url = url;
+        this.busyTimeoutMs = busyTimeoutMs;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+    }
+
+    /**
+     * Report pool metrics (connection acquire time, usage, pending threads) to this tracker.
+     * Must be set before the pools are created.
+     */
+    public void setMetricsTrackerFactory(MetricsTrackerFactory metricsTrackerFactory) {
+        this.metricsTrackerFactory = metricsTrackerFactory;
+    }
+
+    /**
+     * Pool of read-only connections.
+     */
+    public HikariDataSource createReadPool(int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sqlite-read");
+        config.setDataSource(sqlite(SQLiteConfig.TransactionMode.DEFERRED));
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(1);
+        config.setConnectionInitSql("PRAGMA query_only = 1");
+        return pool(config);
+    }
+
+    /**
+     * The single writer connection. Callers wait up to queueTimeoutMs for their turn.
+     */
+    public HikariDataSource createWriter(long queueTimeoutMs) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("sqlite-write");
+        config.setDataSource(sqlite(SQLiteConfig.TransactionMode.IMMEDIATE));
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(queueTimeoutMs);
+        return pool(config);
+    }
+
+    private HikariDataSource pool(HikariConfig config) {
+        if (metricsTrackerFactory != null) {
+            config.setMetricsTrackerFactory(metricsTrackerFactory);
+        }
+        return new HikariDataSource(config);
+    }
+
+    private SQLiteDataSource sqlite(SQLiteConfig.TransactionMode transactionMode) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous));
+        config.setBusyTimeout(busyTimeoutMs);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        config.setTransactionMode(transactionMode);
+
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(url);
+        return dataSource;
+    }
+}
@@ -1,31 +1,45 @@
 package com.example.taskstodo.config;
 
-import com.example.taskstodo.repository.CategoryRepository;
-import com.example.taskstodo.repository.TaskRepository;
-import com.example.taskstodo.repository.UserRepository;
+import com.example.taskstodo.cache.TaskColumnStore;
+import com.example.taskstodo.security.PasswordHasher;
+import com.example.taskstodo.security.TokenService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Application startup configuration.
- * Initializes default data such as categories, users table, and tasks table on application startup.
+ * Brings the database schema (tables, indexes and default categories) up to date on application startup.
  */
 @Configuration
 public class StartupConfig {
 
     /**
-     * Initialize categories, users table, and tasks table on application startup.
+     * Beans kept eager when spring.main.lazy-initialization=true (fast-start launch):
+     * schema migrations and token key checks should fail the startup rather than a
+     * request, and password hashing calibration (the slowest bean) and loading the
+     * in-memory task store must not land on the first requests. Everything else is
+     * created on first use.
      */
     @Bean
-    public CommandLineRunner initializeData(CategoryRepository categoryRepository, UserRepository userRepository, TaskRepository taskRepository) {
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SchemaMigrator.class, TokenService.class, PasswordHasher.class,
+                TaskColumnStore.class);
+    }
+
+    /**
+     * Report the schema version and the request thread model once startup completes.
+     * Pending migrations already ran when SchemaMigrator was created.
+     */
+    @Bean
+    public CommandLineRunner initializeData(SchemaMigrator schemaMigrator,
+                                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         return args -> {
-            userRepository.initializeUsers();
-            System.out.println("✓ Users table initialized successfully.");
-            taskRepository.initializeTasks();
-            System.out.println("✓ Tasks table initialized successfully.");
-            categoryRepository.initializeCategories();
-            System.out.println("✓ Categories initialized successfully.");
+            int version = schemaMigrator.migrate();
+            System.out.println("✓ Database schema at version " + version + ".");
+            System.out.println("✓ Requests handled on " + (virtualThreads ? "virtual" : "platform") + " threads.");
         };
     }
 }
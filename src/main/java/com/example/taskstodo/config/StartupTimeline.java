@@ -0,0 +1,172 @@
+package com.example.taskstodo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Startup timing report: how long each startup phase took, measured from JVM start,
+ * up to the first HTTP request served (time-to-first-request, the number that matters
+ * when instances are started on demand).
+ *
+ * Registered by main() rather than as a bean, so it also sees the events published
+ * before the context exists. Bean instantiation times come from a
+ * {@link BufferingApplicationStartup}; the slowest beans are listed by their own time,
+ * without the beans they depend on. Time-to-first-request is also published as the
+ * application.first.request.time gauge, next to Spring Boot's application.ready.time.
+ *
+ * Disabled with app.startup.report=false.
+ */
+public class StartupTimeline implements ApplicationListener<ApplicationEvent> {
+    private static final int BUFFER_CAPACITY = 4096;
+    private static final String FIRST_REQUEST = "First request served";
+
+    private final BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(BUFFER_CAPACITY);
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final AtomicBoolean firstRequest = new AtomicBoolean();
+    private volatile ConfigurableApplicationContext context;
+    private boolean enabled = true;
+    private int topBeans = 5;
+    private boolean ready;
+
+    public BufferingApplicationStartup getApplicationStartup() {
+        return applicationStartup;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            mark("JVM start to main()");
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent prepared) {
+            Environment environment = prepared.getEnvironment();
+            enabled = environment.getProperty("app.startup.report", Boolean.class, true);
+            topBeans = environment.getProperty("app.startup.report.top-beans", Integer.class, 5);
+            mark("Environment and configuration");
+        } else if (event instanceof ApplicationPreparedEvent prepared) {
+            context = prepared.getApplicationContext();
+            mark("Context preparation");
+        } else if (event instanceof WebServerInitializedEvent) {
+            mark("Bean creation and web server start");
+        } else if (event instanceof ContextRefreshedEvent) {
+            mark("Context refresh completion");
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("Post-refresh callbacks");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("Runners (schema check)");
+            ready();
+        } else if (event instanceof ServletRequestHandledEvent && firstRequest.compareAndSet(false, true)) {
+            // Tomcat accepts requests before the runners finish, so this may come before ready
+            mark(FIRST_REQUEST);
+            firstRequestServed();
+        }
+    }
+
+    private synchronized void mark(String phase) {
+        phases.put(phase, System.currentTimeMillis());
+    }
+
+    private synchronized void ready() {
+        ready = true;
+        if (!enabled) {
+            applicationStartup.drainBufferedTimeline();
+        } else if (phases.containsKey(FIRST_REQUEST)) {
+            report();
+        }
+    }
+
+    private synchronized void firstRequestServed() {
+        long total = phases.get(FIRST_REQUEST) - jvmStartMillis;
+        MeterRegistry registry = context.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        if (registry != null) {
+            TimeGauge.builder("application.first.request.time", () -> total, TimeUnit.MILLISECONDS)
+                    .description("Time from JVM start until the first HTTP request was served")
+                    .register(registry);
+        }
+        if (enabled && ready) {
+            report();
+        }
+    }
+
+    /**
+     * Print the phases in the order they ended, with their duration and end time.
+     */
+    private void report() {
+        StringBuilder out = new StringBuilder("✓ Startup timeline (ms since JVM start):\n");
+        long previous = jvmStartMillis;
+        List<Map.Entry<String, Long>> ordered = new ArrayList<>(phases.entrySet());
+        ordered.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> phase : ordered) {
+            out.append(String.format("    %-36s %6d  (at %6d)%n", phase.getKey(), phase.getValue() - previous, phase.getValue() - jvmStartMillis));
+            previous = phase.getValue();
+        }
+        out.append(String.format("    %-36s %6d%n", "Time to first request", phases.get(FIRST_REQUEST) - jvmStartMillis));
+        if (AotDetector.useGeneratedArtifacts()) {
+            out.append("    (Spring AOT initializers in use)\n");
+        }
+        List<Map.Entry<String, Long>> slowest = slowestBeans();
+        if (!slowest.isEmpty()) {
+            out.append("  Slowest beans (own time, ms):\n");
+            for (Map.Entry<String, Long> bean : slowest) {
+                String name = bean.getKey().length() > 36 ? "…" + bean.getKey().substring(bean.getKey().length() - 35) : bean.getKey();
+                out.append(String.format("    %-36s %6d%n", name, bean.getValue()));
+            }
+        }
+        System.out.print(out);
+    }
+
+    /**
+     * Beans whose instantiation took longest, minus the time spent instantiating the
+     * beans they pulled in. Drains the buffered startup steps.
+     */
+    private List<Map.Entry<String, Long>> slowestBeans() {
+        List<TimelineEvent> events = applicationStartup.drainBufferedTimeline().getEvents();
+        Map<Long, Long> ownNanos = new HashMap<>();
+        Map<Long, String> beanNames = new HashMap<>();
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (!"spring.beans.instantiate".equals(step.getName())) {
+                continue;
+            }
+            ownNanos.merge(step.getId(), event.getDuration().toNanos(), Long::sum);
+            if (step.getParentId() != null) {
+                ownNanos.merge(step.getParentId(), -event.getDuration().toNanos(), Long::sum);
+            }
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey())) {
+                    beanNames.put(step.getId(), tag.getValue());
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> beans = new ArrayList<>();
+        for (Map.Entry<Long, String> bean : beanNames.entrySet()) {
+            beans.add(Map.entry(bean.getValue(), TimeUnit.NANOSECONDS.toMillis(ownNanos.getOrDefault(bean.getKey(), 0L))));
+        }
+        beans.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return beans.subList(0, Math.min(topBeans, beans.size()));
+    }
+}
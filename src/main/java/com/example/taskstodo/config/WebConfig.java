@@ -0,0 +1,47 @@
+package com.example.taskstodo.config;
+
+import com.example.taskstodo.security.UserScopeInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Spring MVC configuration.
+ *
+ * Frontend assets are fingerprinted at build time (StaticAssets, src/build/java) and
+ * served from /assets/ with a one-year immutable Cache-Control: a changed file gets a
+ * new name, so browsers never revalidate them. The .br/.gz variants written next to
+ * each file are sent as they are when the client accepts them, so nothing is compressed
+ * per request. Pages (/**) use the same precompressed variants through
+ * spring.web.resources.chain.compressed, with no-cache so they are revalidated
+ * (304 via Last-Modified) and always point at the current asset names.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    private static final Duration ASSET_MAX_AGE = Duration.ofDays(365);
+
+    private final UserScopeInterceptor userScopeInterceptor;
+
+    public WebConfig(UserScopeInterceptor userScopeInterceptor) {
+        this.userScopeInterceptor = userScopeInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(userScopeInterceptor).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(ASSET_MAX_AGE).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
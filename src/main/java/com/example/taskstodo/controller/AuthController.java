@@ -2,6 +2,9 @@ package com.example.taskstodo.controller;
 
 import com.example.taskstodo.model.User;
 import com.example.taskstodo.repository.UserRepository;
+import com.example.taskstodo.security.PasswordHasher;
+import com.example.taskstodo.security.TokenAuthenticationFilter;
+import com.example.taskstodo.security.TokenService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,16 +22,22 @@ import java.util.Optional;
  * 
  * Endpoints:
  * POST /api/auth/register   - Registrar novo usuário
- * POST /api/auth/login      - Fazer login
+ * POST /api/auth/login      - Fazer login (devolve o token de sessão)
+ * POST /api/auth/logout     - Encerrar a sessão (revoga o token)
  * GET  /api/auth/users/{id} - Obter dados do usuário
+ *
+ * Com exceção de register e login, todas as chamadas à API exigem o header
+ * Authorization: Bearer <token> (ver TokenAuthenticationFilter).
  */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     private final UserRepository userRepository;
+    private final TokenService tokenService;
 
-    public AuthController(UserRepository userRepository) {
+    public AuthController(UserRepository userRepository, TokenService tokenService) {
         this.userRepository = userRepository;
+        this.tokenService = tokenService;
     }
 
     /**
@@ -60,6 +69,7 @@ public class AuthController {
      * - 400: Username ou password vazio
      * - 409: Username já existe
      * - 400: Dados fora dos limites de validação
+     * - 429: Pool de hashing de senhas saturado (Retry-After: 1)
      * 
      * @param body JSON com "username" e "password"
      * @return ResponseEntity com resultado
@@ -100,6 +110,8 @@ public class AuthController {
                         "user_id", registeredUser.getId(),
                         "username", registeredUser.getUsername()
                     ));
+        } catch (PasswordHasher.BusyException e) {
+            return busy();
         } catch (Exception e) {
             // Tratamento de erro específico: username duplicado
             String errorMsg = e.getMessage();
@@ -130,18 +142,22 @@ public class AuthController {
      * 2. Valida se os campos não estão vazios
      * 3. Chama UserRepository.login()
      * 4. Valida credenciais
-     * 5. Retorna user_id se sucesso
+     * 5. Retorna user_id e um token de sessão assinado se sucesso
      * 
      * Response (200 OK):
      * {
      *   "message": "Login realizado com sucesso",
      *   "user_id": 1,
-     *   "username": "novo_usuario"
+     *   "username": "novo_usuario",
+     *   "token": "local.1.1767225600.x9...",
+     *   "token_type": "Bearer",
+     *   "expires_in": 43200
      * }
      * 
      * Erros:
      * - 400: Username ou password vazio
      * - 401: Credenciais inválidas
+     * - 429: Pool de hashing de senhas saturado (Retry-After: 1)
      * 
      * @param body JSON com "username" e "password"
      * @return ResponseEntity com resultado
@@ -181,13 +197,18 @@ public class AuthController {
                 return ResponseEntity.ok(Map.of(
                     "message", "Login realizado com sucesso",
                     "user_id", loggedInUser.getId(),
-                    "username", loggedInUser.getUsername()
+                    "username", loggedInUser.getUsername(),
+                    "token", tokenService.issue(loggedInUser.getId()),
+                    "token_type", "Bearer",
+                    "expires_in", tokenService.getTtlSeconds()
                 ));
             } else {
                 // Credenciais inválidas - status 401 (Unauthorized)
                 return ResponseEntity.status(401)
                         .body(Map.of("error", "Nome de usuário ou senha inválidos"));
             }
+        } catch (PasswordHasher.BusyException e) {
+            return busy();
         } catch (Exception e) {
             // Tratamento genérico de erro
             return ResponseEntity.status(400)
@@ -195,6 +216,34 @@ public class AuthController {
         }
     }
 
+    /**
+     * Encerra a sessão atual.
+     *
+     * Endpoint: POST /api/auth/logout (com Authorization: Bearer <token>)
+     *
+     * O token é revogado em memória até o horário em que expiraria; depois disso
+     * ele já é recusado pela própria expiração.
+     *
+     * Response (200 OK):
+     * {
+     *   "message": "Logout realizado com sucesso"
+     * }
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
+        tokenService.revoke(session);
+        return ResponseEntity.ok(Map.of("message", "Logout realizado com sucesso"));
+    }
+
+    /**
+     * Resposta quando o pool de hashing de senhas está saturado (status 429).
+     */
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(429)
+                .header("Retry-After", "1")
+                .body(Map.of("error", "Muitas tentativas simultâneas, tente novamente"));
+    }
+
     /**
      * Obtém informações do usuário por ID.
      * 
@@ -212,6 +261,7 @@ public class AuthController {
      * }
      * 
      * Erros:
+     * - 403: Token de outro usuário
      * - 404: Usuário não encontrado
      * - 500: Erro interno do servidor
      * 
@@ -220,8 +270,8 @@ public class AuthController {
      * @param id ID do usuário
      * @return ResponseEntity com dados do usuário
      */
-    @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserInfo(@PathVariable Integer id) {
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<?> getUserInfo(@PathVariable("userId") Integer id) {
         try {
             // Busca usuário no banco de dados
             Optional<User> user = userRepository.findById(id);
@@ -1,13 +1,13 @@
 package com.example.taskstodo.controller;
 
-import com.example.taskstodo.model.Category;
+import com.example.taskstodo.cache.CategoryCache;
 import com.example.taskstodo.repository.CategoryRepository;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -25,12 +25,18 @@ public class CategoryController {
     /**
      * Get all categories.
      * GET /api/categories
+     *
+     * Served from the category cache with an ETag. Browsers revalidate on every load
+     * (Cache-Control: no-cache) and get 304 Not Modified while categories are unchanged.
      */
     @GetMapping
     public ResponseEntity<?> getAllCategories() {
         try {
-            List<Category> categories = categoryRepository.findAll();
-            return ResponseEntity.ok(categories);
+            CategoryCache.Snapshot snapshot = categoryRepository.findAllSnapshot();
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(snapshot.getEtag())
+                    .body(snapshot.getCategories());
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("error", "Failed to fetch categories"));
@@ -1,13 +1,51 @@
 package com.example.taskstodo.controller;
 
+import com.example.taskstodo.events.TaskEventHub;
+import com.example.taskstodo.model.Category;
 import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskCursor;
+import com.example.taskstodo.model.TaskFilter;
+import com.example.taskstodo.model.TaskTransfer;
+import com.example.taskstodo.repository.CategoryRepository;
+import com.example.taskstodo.repository.TaskChangeLog;
 import com.example.taskstodo.repository.TaskRepository;
+import com.example.taskstodo.security.TokenAuthenticationFilter;
+import com.example.taskstodo.security.TokenService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Task controller handling CRUD operations for tasks.
@@ -15,35 +53,336 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_IMPORT_ERRORS = 100;
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final TaskRepository taskRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskEventHub events;
+    private final TaskChangeLog changeLog;
+    private final int importChunkSize;
+    private final long importMaxRows;
 
-    public TaskController(TaskRepository taskRepository) {
+    public TaskController(TaskRepository taskRepository, CategoryRepository categoryRepository,
+                          ObjectMapper objectMapper, TaskEventHub events, TaskChangeLog changeLog,
+                          @Value("${app.tasks.import.chunk-size:5000}") int importChunkSize,
+                          @Value("${app.tasks.import.max-rows:1000000}") long importMaxRows) {
         this.taskRepository = taskRepository;
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.events = events;
+        this.changeLog = changeLog;
+        this.importChunkSize = Math.max(1, importChunkSize);
+        this.importMaxRows = importMaxRows;
     }
 
     /**
-     * Get all tasks for a user.
+     * Get tasks for a user.
      * GET /api/tasks/user/{userId}
+     *
+     * Without parameters the full list is returned as a JSON array.
+     * With limit and/or after a single keyset page is returned:
+     * { "tasks": [...], "next_cursor": "..." } where next_cursor is null on the last page.
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getTasksByUser(@PathVariable Integer userId) {
+    public ResponseEntity<?> getTasksByUser(@PathVariable Integer userId,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String after) {
         try {
-            List<Task> tasks = taskRepository.findByUserId(userId);
-            return ResponseEntity.ok(tasks);
+            if (limit == null && after == null) {
+                List<Task> tasks = taskRepository.findByUserId(userId);
+                return ResponseEntity.ok(tasks);
+            }
+
+            int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+            TaskCursor cursor = after != null && !after.isEmpty() ? TaskCursor.decode(after) : null;
+            List<Task> tasks = taskRepository.findPageByUserId(userId, cursor, pageSize);
+
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("tasks", tasks);
+            page.put("next_cursor", tasks.size() == pageSize
+                    ? TaskCursor.after(tasks.get(tasks.size() - 1)).encode()
+                    : null);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid cursor"));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                     .body(Map.of("error", "Failed to fetch tasks"));
         }
     }
 
+    /**
+     * Stream all tasks for a user as a JSON array.
+     * GET /api/tasks/user/{userId}?stream=true
+     *
+     * Each row is serialized as soon as it is read from the ResultSet,
+     * so memory use does not depend on how many tasks the user has.
+     */
+    @GetMapping(value = "/user/{userId}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamTasksByUser(@PathVariable Integer userId) {
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                taskRepository.forEachByUserId(userId, task -> {
+                    try {
+                        writer.writeValue(generator, task);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Export all tasks of a user as a file, streamed from the database cursor like
+     * ?stream=true, newest first.
+     * GET /api/tasks/user/{userId}/export?format=ndjson|csv
+     *
+     * ndjson (default) has one task per line; csv has the columns of
+     * {@link TaskTransfer#CSV_COLUMNS}. Both can be sent back to POST .../import.
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@PathVariable Integer userId,
+                                                             @RequestParam(defaultValue = "ndjson") String format)
+            throws JsonProcessingException {
+        boolean csv = "csv".equals(format);
+        if (!csv && !"ndjson".equals(format)) {
+            // The body has to be a StreamingResponseBody here too (Spring picks the handler by return type)
+            byte[] error = objectMapper.writeValueAsBytes(Map.of("error", "format must be ndjson or csv"));
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(error));
+        }
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            Writer text = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65536);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(text)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Lines end with \n instead of the default " " between root values
+                generator.setRootValueSeparator(null);
+                if (csv) {
+                    TaskTransfer.writeCsvHeader(text);
+                }
+                taskRepository.forEachByUserId(userId, task -> {
+                    try {
+                        if (csv) {
+                            TaskTransfer.writeCsv(text, task);
+                        } else {
+                            writer.writeValue(generator, task);
+                            generator.writeRaw('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            text.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tarefas." + format + "\"")
+                .body(body);
+    }
+
+    /**
+     * Import tasks into a user's list from an NDJSON or CSV upload, in the format of
+     * GET .../export. The format comes from ?format= or else the Content-Type
+     * (text/csv is CSV, anything else NDJSON).
+     * POST /api/tasks/user/{userId}/import
+     *
+     * The body is parsed as it arrives and valid rows are inserted in transactions of
+     * app.tasks.import.chunk-size rows, so memory use does not depend on the upload size.
+     * Invalid rows are skipped. The response is NDJSON written while importing:
+     * { "type": "error", "line": 12, "error": "title is required" } per invalid row (the
+     * first 100), { "type": "progress", "rows": 5000, "imported": 4998, "failed": 2 }
+     * after each chunk, and finally the totals with type "done", or "aborted" plus an
+     * error when the rest of the upload was skipped (unclosed CSV quote, row limit, read or
+     * database failure). Rows before that point stay imported, apart from the chunk a
+     * database failure rolled back.
+     */
+    @PostMapping("/user/{userId}/import")
+    public ResponseEntity<?> importTasks(@PathVariable Integer userId,
+                                         @RequestParam(required = false) String format,
+                                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (format != null && !"csv".equals(format) && !"ndjson".equals(format)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "format must be ndjson or csv"));
+        }
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.toLowerCase().startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            // The container reads form bodies as request parameters, so the upload would be gone
+            return ResponseEntity.status(415)
+                    .body(Map.of("error", "Send the file as text/csv or application/x-ndjson"));
+        }
+        boolean csv = format != null ? "csv".equals(format)
+                : contentType != null && contentType.toLowerCase().startsWith("text/csv");
+        Set<Integer> categoryIds = categoryRepository.findAll().stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+
+        Reader reader = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        TaskTransfer.CsvReader csvReader = null;
+        BufferedReader lineReader = null;
+        Map<String, Integer> columns = null;
+        if (csv) {
+            csvReader = new TaskTransfer.CsvReader(reader);
+            List<String> header;
+            try {
+                header = csvReader.next();
+            } catch (IllegalArgumentException e) {
+                header = null;
+            }
+            columns = header != null ? TaskTransfer.CsvReader.columns(header) : Map.of();
+            if (!columns.containsKey("title")) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "CSV must start with a header line including title"));
+            }
+        } else {
+            lineReader = new BufferedReader(reader, 65536);
+        }
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        Writer out = response.getWriter();
+        List<Task> chunk = new ArrayList<>(Math.min(importChunkSize, 10000));
+        long rows = 0;
+        long imported = 0;
+        long failed = 0;
+        String abortError = null;
+        try {
+            long line = 0;
+            while (true) {
+                Map<String, Object> row;
+                if (csv) {
+                    List<String> record;
+                    try {
+                        record = csvReader.next();
+                    } catch (IllegalArgumentException e) {
+                        // Unclosed quote: nothing after it can be split into rows
+                        abortError = e.getMessage();
+                        break;
+                    }
+                    if (record == null) {
+                        break;
+                    }
+                    line = csvReader.getLine();
+                    if (record.size() == 1 && record.get(0).isEmpty()) {
+                        continue;
+                    }
+                    row = TaskTransfer.CsvReader.row(columns, record);
+                } else {
+                    String text = lineReader.readLine();
+                    if (text == null) {
+                        break;
+                    }
+                    line++;
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    row = null;
+                    try {
+                        Map<?, ?> values = objectMapper.readValue(text, Map.class);
+                        if (values != null) {
+                            row = new HashMap<>();
+                            for (Map.Entry<?, ?> value : values.entrySet()) {
+                                row.put(TaskTransfer.fieldName(value.getKey().toString()), value.getValue());
+                            }
+                        }
+                    } catch (JsonProcessingException e) {
+                        // Reported below with the other invalid rows
+                    }
+                }
+
+                if (++rows > importMaxRows) {
+                    rows--;
+                    abortError = "Import is limited to " + importMaxRows + " rows";
+                    break;
+                }
+                try {
+                    if (row == null) {
+                        throw new IllegalArgumentException("line is not a JSON object");
+                    }
+                    chunk.add(TaskTransfer.toTask(row, userId, categoryIds));
+                } catch (IllegalArgumentException e) {
+                    if (failed++ < MAX_IMPORT_ERRORS) {
+                        Map<String, Object> error = new LinkedHashMap<>();
+                        error.put("type", "error");
+                        error.put("line", line);
+                        error.put("error", e.getMessage());
+                        writeImportLine(out, error);
+                    }
+                }
+
+                if (chunk.size() == importChunkSize) {
+                    imported += taskRepository.importAll(userId, chunk);
+                    chunk.clear();
+                    writeImportLine(out, importTotals("progress", rows, imported, failed));
+                    out.flush();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                imported += taskRepository.importAll(userId, chunk);
+            }
+        } catch (IOException e) {
+            abortError = "Failed to read upload: " + e.getMessage();
+        } catch (Exception e) {
+            System.err.println("Task import failed for user " + userId + ": " + e.getMessage());
+            abortError = "Failed to import tasks: " + e.getMessage();
+        }
+
+        if (imported > 0) {
+            events.imported(userId, imported);
+        }
+        Map<String, Object> totals = importTotals(abortError == null ? "done" : "aborted", rows, imported, failed);
+        if (abortError != null) {
+            totals.put("error", abortError);
+        }
+        writeImportLine(out, totals);
+        out.flush();
+        return null;
+    }
+
+    private static Map<String, Object> importTotals(String type, long rows, long imported, long failed) {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("type", type);
+        totals.put("rows", rows);
+        totals.put("imported", imported);
+        totals.put("failed", failed);
+        return totals;
+    }
+
+    private void writeImportLine(Writer out, Map<String, Object> value) throws IOException {
+        out.write(objectMapper.writeValueAsString(value));
+        out.write('\n');
+    }
+
     /**
      * Get a specific task by id.
      * GET /api/tasks/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTaskById(@PathVariable Integer id) {
+    public ResponseEntity<?> getTaskById(@PathVariable Integer id, @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
         try {
-            Optional<Task> task = taskRepository.findById(id);
+            Optional<Task> task = ownTask(id, session);
             if (task.isPresent()) {
                 return ResponseEntity.ok(task.get());
             } else {
@@ -61,37 +400,97 @@ public class TaskController {
      * POST /api/tasks
      */
     @PostMapping
-    public ResponseEntity<?> createTask(@RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> createTask(@RequestBody Map<String, Object> body, @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
         try {
-            String title = (String) body.get("title");
-            String description = (String) body.get("description");
-            Integer userId = ((Number) body.get("user_id")).intValue();
-            Integer categoryId = body.get("category_id") != null ? 
-                    ((Number) body.get("category_id")).intValue() : null;
-            String dueDate = (String) body.get("due_date");
+            Task savedTask = taskRepository.save(toNewTask(body, session));
+            events.added(savedTask);
+            return ResponseEntity.status(201).body(savedTask);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(400)
+                    .body(Map.of("error", "Failed to create task: " + e.getMessage()));
+        }
+    }
 
-            if (title == null || title.trim().isEmpty()) {
+    /**
+     * Create several tasks in one transaction.
+     * POST /api/tasks/batch
+     *
+     * Body: JSON array of task objects (same fields as POST /api/tasks).
+     * Either every task is created or none is.
+     * Response (201): { "ids": [..] } in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createTasks(@RequestBody List<Map<String, Object>> body, @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
+        try {
+            if (body.isEmpty() || body.size() > MAX_BATCH_SIZE) {
                 return ResponseEntity.badRequest()
-                        .body(Map.of("error", "Title is required"));
+                        .body(Map.of("error", "Batch must contain between 1 and " + MAX_BATCH_SIZE + " tasks"));
+            }
+            List<Task> tasks = new ArrayList<>(body.size());
+            for (int i = 0; i < body.size(); i++) {
+                try {
+                    tasks.add(toNewTask(body.get(i), session));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Task " + i + ": " + e.getMessage()));
+                }
             }
 
-            Task task = new Task(title, description, categoryId, userId, dueDate, 0);
-            Task savedTask = taskRepository.save(task);
-            return ResponseEntity.status(201).body(savedTask);
+            List<Task> created = taskRepository.saveAll(tasks);
+            created.forEach(events::added);
+            List<Integer> ids = created.stream()
+                    .map(Task::getId)
+                    .toList();
+            return ResponseEntity.status(201).body(Map.of("ids", ids));
         } catch (Exception e) {
             return ResponseEntity.status(400)
-                    .body(Map.of("error", "Failed to create task: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to create tasks: " + e.getMessage()));
         }
     }
 
+    /**
+     * Build a new task from a request body, owned by the session's user.
+     * user_id may be omitted; when present it must be the session's user.
+     *
+     * @throws IllegalArgumentException if a required field is missing
+     */
+    private Task toNewTask(Map<String, Object> body, TokenService.Session session) {
+        String title = (String) body.get("title");
+        if (title == null || title.trim().isEmpty()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        Object userIdValue = body.get("user_id");
+        if (userIdValue != null && !(userIdValue instanceof Number && ((Number) userIdValue).intValue() == session.getUserId())) {
+            throw new IllegalArgumentException("user_id must be the logged-in user");
+        }
+        String description = (String) body.get("description");
+        Integer userId = session.getUserId();
+        Integer categoryId = body.get("category_id") != null ?
+                ((Number) body.get("category_id")).intValue() : null;
+        String dueDate = (String) body.get("due_date");
+        return new Task(title, description, categoryId, userId, dueDate, 0);
+    }
+
+    /**
+     * Load a task if it belongs to the session's user. Other users' tasks look missing,
+     * so their ids are not revealed.
+     */
+    private Optional<Task> ownTask(Integer id, TokenService.Session session) {
+        return taskRepository.findById(id).filter(task -> task.getUserId() == session.getUserId());
+    }
+
     /**
      * Update an existing task.
      * PUT /api/tasks/{id}
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTask(@PathVariable Integer id, @RequestBody Map<String, Object> body) {
+    public ResponseEntity<?> updateTask(@PathVariable Integer id, @RequestBody Map<String, Object> body,
+                                        @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
         try {
-            Optional<Task> existingTask = taskRepository.findById(id);
+            Optional<Task> existingTask = ownTask(id, session);
             if (!existingTask.isPresent()) {
                 return ResponseEntity.status(404)
                         .body(Map.of("error", "Task not found"));
@@ -100,7 +499,12 @@ public class TaskController {
             Task task = existingTask.get();
             
             if (body.containsKey("title")) {
-                task.setTitle((String) body.get("title"));
+                String title = (String) body.get("title");
+                if (title == null || title.trim().isEmpty()) {
+                    return ResponseEntity.badRequest()
+                            .body(Map.of("error", "Title is required"));
+                }
+                task.setTitle(title);
             }
             if (body.containsKey("description")) {
                 task.setDescription((String) body.get("description"));
@@ -117,6 +521,7 @@ public class TaskController {
             }
 
             taskRepository.update(task);
+            events.updated(task);
             return ResponseEntity.ok(Map.of("message", "Task updated successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(400)
@@ -129,15 +534,16 @@ public class TaskController {
      * DELETE /api/tasks/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable Integer id) {
+    public ResponseEntity<?> deleteTask(@PathVariable Integer id, @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
         try {
-            Optional<Task> task = taskRepository.findById(id);
+            Optional<Task> task = ownTask(id, session);
             if (!task.isPresent()) {
                 return ResponseEntity.status(404)
                         .body(Map.of("error", "Task not found"));
             }
 
             taskRepository.deleteById(id);
+            events.removed(session.getUserId(), id);
             return ResponseEntity.ok(Map.of("message", "Task deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -150,9 +556,10 @@ public class TaskController {
      * PATCH /api/tasks/{id}/completed
      */
     @PatchMapping("/{id}/completed")
-    public ResponseEntity<?> toggleCompleted(@PathVariable Integer id, @RequestBody Map<String, Integer> body) {
+    public ResponseEntity<?> toggleCompleted(@PathVariable Integer id, @RequestBody Map<String, Integer> body,
+                                             @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
         try {
-            Optional<Task> task = taskRepository.findById(id);
+            Optional<Task> task = ownTask(id, session);
             if (!task.isPresent()) {
                 return ResponseEntity.status(404)
                         .body(Map.of("error", "Task not found"));
@@ -160,6 +567,7 @@ public class TaskController {
 
             Integer completed = body.get("completed");
             taskRepository.markCompleted(id, completed);
+            events.completed(session.getUserId(), id, completed);
             return ResponseEntity.ok(Map.of("message", "Task status updated"));
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -167,6 +575,168 @@ public class TaskController {
         }
     }
 
+    /**
+     * Get task counters for a user's dashboard.
+     * GET /api/tasks/user/{userId}/stats
+     */
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<?> getTaskStats(@PathVariable Integer userId) {
+        try {
+            return ResponseEntity.ok(taskRepository.countByUserId(userId));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", "Failed to fetch task stats"));
+        }
+    }
+
+    /**
+     * Get a user's tasks due in a date range (inclusive), e.g. the visible calendar month.
+     * GET /api/tasks/user/{userId}/range?from=2025-12-01&to=2025-12-31
+     *
+     * With counts_only=true only the number of tasks per day is returned:
+     * { "2025-12-03": 2, "2025-12-10": 1 }
+     */
+    @GetMapping("/user/{userId}/range")
+    public ResponseEntity<?> getTasksByDueDateRange(@PathVariable Integer userId,
+                                                    @RequestParam String from,
+                                                    @RequestParam String to,
+                                                    @RequestParam(name = "counts_only", defaultValue = "false") boolean countsOnly) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "from and to must be dates (YYYY-MM-DD)"));
+        }
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_RANGE_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Range must be between 1 and " + MAX_RANGE_DAYS + " days"));
+        }
+
+        try {
+            if (countsOnly) {
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                taskRepository.countByUserIdPerDueDate(userId, fromDate, toDate)
+                        .forEach((day, count) -> counts.put(day.toString(), count));
+                return ResponseEntity.ok(counts);
+            }
+            return ResponseEntity.ok(taskRepository.findByUserIdAndDueDateBetween(userId, fromDate, toDate));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", "Failed to fetch tasks"));
+        }
+    }
+
+    /**
+     * Full-text search in a user's task titles and descriptions, best matches first.
+     * GET /api/tasks/user/{userId}/search?q=relat reun&limit=20
+     *
+     * Every word must match a word or word prefix (case and accents ignored).
+     * Returns [{ "task": {...}, "title": "<mark>Relatório</mark> da <mark>reunião</mark>", "snippet": "...", "score": -3.2 }]
+     * where title and snippet are escaped HTML with matches in &lt;mark&gt;.
+     */
+    @GetMapping("/user/{userId}/search")
+    public ResponseEntity<?> searchTasks(@PathVariable Integer userId,
+                                         @RequestParam String q,
+                                         @RequestParam(required = false) Integer limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "q is required"));
+        }
+        if (q.length() > MAX_QUERY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "q must have at most " + MAX_QUERY_LENGTH + " characters"));
+        }
+        int results = limit != null ? Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)) : DEFAULT_SEARCH_RESULTS;
+        try {
+            return ResponseEntity.ok(taskRepository.searchByUserId(userId, q, results));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", "Failed to search tasks"));
+        }
+    }
+
+    /**
+     * Stream of a user's task changes (Server-Sent Events), for clients to patch their
+     * list instead of fetching it again.
+     * GET /api/tasks/user/{userId}/events (token in Authorization or ?access_token=)
+     *
+     * Events are named "task" with JSON data:
+     * { "type": "ready" } first (load the list now), then
+     * { "type": "created" | "updated", "id": 7, "task": {...} },
+     * { "type": "completed", "id": 7, "completed": 1 }, { "type": "deleted", "id": 7 } and
+     * { "type": "imported", "count": 5000 } (load the list again).
+     * 503 when the subscriber limits are reached.
+     */
+    @GetMapping(value = "/user/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTaskEvents(@PathVariable Integer userId,
+                                                       @RequestAttribute(TokenAuthenticationFilter.SESSION) TokenService.Session session) {
+        SseEmitter emitter = events.subscribe(session);
+        if (emitter == null) {
+            return ResponseEntity.status(503).header("Retry-After", "30").build();
+        }
+        // Keep proxies (nginx) from buffering the stream
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    /**
+     * Get what changed in a user's tasks since a previous sync.
+     * GET /api/tasks/user/{userId}/changes?since=1234
+     *
+     * Returns { "revision": 1290, "reset": false, "upserts": [...], "deleted": [7, 9] }:
+     * the current state of tasks created or changed after since and the ids of deleted ones.
+     * Pass revision as since next time. since=0 (the default) returns every task; so does
+     * a since the log can no longer answer, with reset=true to replace the local list.
+     */
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<?> getTaskChanges(@PathVariable Integer userId,
+                                            @RequestParam(defaultValue = "0") long since) {
+        if (since < 0) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "since must not be negative"));
+        }
+        try {
+            return ResponseEntity.ok(changeLog.findChanges(userId, since));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", "Failed to fetch task changes"));
+        }
+    }
+
+    /**
+     * Get a user's tasks matching a combination of predicates, newest first.
+     * GET /api/tasks/user/{userId}/filter?completed=false&category=1,none&due_from=2025-12-01&due_to=2025-12-07
+     *
+     * All parameters are optional and combined with AND: completed (true/false),
+     * category (ids, "none" for no category), due_from/due_to, overdue (true/false),
+     * created_from/created_to. Dates are YYYY-MM-DD and windows are inclusive.
+     */
+    @GetMapping("/user/{userId}/filter")
+    public ResponseEntity<?> filterTasks(@PathVariable Integer userId,
+                                         @RequestParam(required = false) Boolean completed,
+                                         @RequestParam(required = false) String category,
+                                         @RequestParam(name = "due_from", required = false) String dueFrom,
+                                         @RequestParam(name = "due_to", required = false) String dueTo,
+                                         @RequestParam(required = false) Boolean overdue,
+                                         @RequestParam(name = "created_from", required = false) String createdFrom,
+                                         @RequestParam(name = "created_to", required = false) String createdTo) {
+        TaskFilter filter;
+        try {
+            filter = TaskFilter.of(completed, category, dueFrom, dueTo, overdue, createdFrom, createdTo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+        try {
+            return ResponseEntity.ok(taskRepository.filterByUserId(userId, filter));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                    .body(Map.of("error", "Failed to fetch tasks"));
+        }
+    }
+
     /**
      * Get tasks by category for a user.
      * GET /api/tasks/user/{userId}/category/{categoryId}
@@ -0,0 +1,322 @@
+package com.example.taskstodo.events;
+
+import com.example.taskstodo.model.Task;
+import com.example.taskstodo.security.TokenService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fan-out of task changes to the Server-Sent Events streams of their owner
+ * (GET /api/tasks/user/{userId}/events), so open dashboards patch their list
+ * instead of downloading it again after every change.
+ *
+ * Publishing never blocks: an event is serialized once and offered to the bounded
+ * queue of each of the user's subscribers. Each subscriber is drained by its own
+ * virtual thread while it has events, so a slow client only delays itself. A
+ * subscriber whose queue is full is evicted; its browser reconnects and reloads the
+ * list. Idle subscribers hold no thread, only the async request and an empty queue.
+ *
+ * A comment line is sent every heartbeat-seconds, which keeps proxies from closing
+ * idle streams and detects dead connections; streams whose session expired or was
+ * logged out are closed then. Streams end after timeout-minutes and the browser
+ * reconnects. Events are per process: with several instances, each only sees the
+ * changes it handled.
+ */
+@Component
+public class TaskEventHub {
+    private static final String HEARTBEAT = "";
+
+    private final ObjectMapper objectMapper;
+    private final TokenService tokenService;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final int maxPerUser;
+    private final long timeoutMillis;
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledThreadPoolExecutor heartbeats;
+    private final Counter published;
+    private final Counter evicted;
+
+    public TaskEventHub(ObjectMapper objectMapper, TokenService tokenService, MeterRegistry meterRegistry,
+                        @Value("${app.events.buffer-size:64}") int bufferSize,
+                        @Value("${app.events.max-subscribers:50000}") int maxSubscribers,
+                        @Value("${app.events.max-per-user:16}") int maxPerUser,
+                        @Value("${app.events.heartbeat-seconds:25}") long heartbeatSeconds,
+                        @Value("${app.events.timeout-minutes:30}") long timeoutMinutes) {
+        this.objectMapper = objectMapper;
+        this.tokenService = tokenService;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPerUser = maxPerUser;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.heartbeats = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "task-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("tasks.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open task event streams")
+                .register(meterRegistry);
+        this.published = Counter.builder("tasks.events.published")
+                .description("Task change events published")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("tasks.events.evicted")
+                .description("Event streams closed because the client did not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream for a session's user. The first event is "ready": clients
+     * load the full list when they get it, which also covers changes missed while
+     * reconnecting.
+     *
+     * @return the stream, or null when the subscriber limits are reached
+     */
+    public SseEmitter subscribe(TokenService.Session session) {
+        int userId = session.getUserId();
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        Subscriber subscriber = new Subscriber(userId, session, new SseEmitter(timeoutMillis));
+        // compute, like remove's computeIfPresent, so an emptied set is never added to after it was dropped;
+        // the per-user limit is checked in the same compute, so concurrent reconnects cannot exceed it
+        AtomicBoolean added = new AtomicBoolean();
+        subscribers.compute(userId, (id, userSubscribers) -> {
+            if (userSubscribers != null && userSubscribers.size() >= maxPerUser) {
+                return userSubscribers;
+            }
+            Set<Subscriber> updated = userSubscribers != null ? userSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            added.set(true);
+            return updated;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        subscriber.offer(toJson(Map.of("type", "ready")));
+        return subscriber.emitter;
+    }
+
+    /**
+     * A task was created.
+     */
+    public void added(Task task) {
+        publish(task.getUserId(), event("created", task.getId(), "task", task));
+    }
+
+    /**
+     * A task's fields changed.
+     */
+    public void updated(Task task) {
+        publish(task.getUserId(), event("updated", task.getId(), "task", task));
+    }
+
+    /**
+     * A task's completed flag changed.
+     */
+    public void completed(int userId, int id, Integer completed) {
+        publish(userId, event("completed", id, "completed", completed));
+    }
+
+    /**
+     * A task was deleted.
+     */
+    public void removed(int userId, int id) {
+        publish(userId, event("deleted", id, null, null));
+    }
+
+    /**
+     * Tasks were imported in bulk; clients load the list again instead of getting
+     * an event per task.
+     */
+    public void imported(int userId, long count) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", "imported");
+        event.put("count", count);
+        publish(userId, event);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private static Map<String, Object> event(String type, int id, String field, Object value) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("id", id);
+        if (field != null) {
+            event.put(field, value);
+        }
+        return event;
+    }
+
+    private void publish(int userId, Map<String, Object> event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+        String json = toJson(event);
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.offer(json);
+        }
+        published.increment();
+    }
+
+    private String toJson(Map<String, Object> event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Task event not serializable", e);
+        }
+    }
+
+    private void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                if (tokenService.isActive(subscriber.session)) {
+                    subscriber.offer(HEARTBEAT);
+                } else {
+                    subscriber.close();
+                }
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscriberCount.decrementAndGet();
+        }
+        subscribers.computeIfPresent(subscriber.userId, (userId, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            userSubscribers.forEach(Subscriber::close);
+        }
+        senders.shutdown();
+        try {
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One open stream: a bounded queue of serialized events (HEARTBEAT for a comment
+     * line) and at most one sender draining it.
+     */
+    private final class Subscriber implements Runnable {
+        final int userId;
+        final TokenService.Session session;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(int userId, TokenService.Session session, SseEmitter emitter) {
+            this.userId = userId;
+            this.session = session;
+            this.emitter = emitter;
+        }
+
+        void offer(String event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                evicted.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                String event = queue.poll();
+                if (event == null) {
+                    draining.set(false);
+                    // An event offered after poll() but before the flag was cleared has no sender yet
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (closed.get()) {
+                    continue;
+                }
+                try {
+                    if (event.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("task").data(event));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client gone or stream already completed
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Stop sending and end the stream. Completing waits for a send in progress,
+         * so it runs on a sender thread rather than in the publisher.
+         */
+        void close() {
+            remove(this);
+            queue.clear();
+            try {
+                senders.execute(this::complete);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                complete();
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed
+            }
+        }
+    }
+}
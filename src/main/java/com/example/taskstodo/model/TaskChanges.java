@@ -0,0 +1,66 @@
+package com.example.taskstodo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A user's task changes after a revision, for GET /api/tasks/user/{userId}/changes.
+ *
+ * upserts holds the current state of every task created or changed since then, deleted
+ * the ids of tasks removed since then. A client applies both and keeps revision for
+ * the next request. When reset is true the changes start from scratch (the requested
+ * revision was 0, unknown, or older than what the log still holds): upserts then lists
+ * every task of the user and the client drops the tasks it did not receive.
+ */
+public class TaskChanges {
+    private long revision;
+    private final boolean reset;
+    private final List<Task> upserts = new ArrayList<>();
+    private final List<Integer> deleted = new ArrayList<>();
+
+    public TaskChanges(long since, boolean reset) {
+        this.revision = since;
+        this.reset = reset;
+    }
+
+    /**
+     * Add a task's newest change. task is null when the task was deleted.
+     */
+    public void add(long revision, int taskId, Task task) {
+        if (task != null) {
+            upserts.add(task);
+        } else {
+            deleted.add(taskId);
+        }
+        this.revision = Math.max(this.revision, revision);
+    }
+
+    /**
+     * Revision to ask for changes after next time.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public List<Task> getUpserts() {
+        return upserts;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskChanges{" +
+                "revision=" + revision +
+                ", reset=" + reset +
+                ", upserts=" + upserts.size() +
+                ", deleted=" + deleted.size() +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskstodo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset cursor pointing at the last task of a page.
+ * Tasks are listed by (created_at DESC, id DESC), so the cursor carries both values
+ * and the next page starts strictly after them.
+ * Encoded as an opaque URL-safe string so clients never depend on its layout.
+ */
+public class TaskCursor {
+    private static final char SEPARATOR = '|';
+
+    private final String createdAt;
+    private final Integer id;
+
+    public TaskCursor(String createdAt, Integer id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Build the cursor that continues after the given task.
+     */
+    public static TaskCursor after(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static TaskCursor decode(String value) {
+        String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return new TaskCursor(raw.substring(0, separator), Integer.parseInt(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskCursor{" +
+                "createdAt='" + createdAt + '\'' +
+                ", id=" + id +
+                '}';
+    }
+}
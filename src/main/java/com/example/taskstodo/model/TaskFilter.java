@@ -0,0 +1,190 @@
+package com.example.taskstodo.model;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Combination of task predicates for GET /api/tasks/user/{userId}/filter.
+ * Every given predicate must hold; predicates left null are not applied.
+ *
+ * - completed: done (completed != 0) or pending
+ * - categories: category ids, optionally plus tasks without category
+ * - dueFrom/dueTo: due date in the window (inclusive, either end may be open)
+ * - overdue: pending with a due date up to today (UTC), as counted by the stats endpoint;
+ *   false excludes those tasks
+ * - createdFrom/createdTo: creation date in the window (inclusive)
+ *
+ * Dates are compared by day, read like SQLite's due_day column: the first 10 characters
+ * of the stored text as YYYY-MM-DD. Tasks whose date is not in that form never match a
+ * date window.
+ */
+public class TaskFilter {
+    private static final String NO_CATEGORY = "none";
+
+    private Boolean completed;
+    private int[] categoryIds;
+    private boolean withoutCategory;
+    private Integer dueFrom;
+    private Integer dueTo;
+    private Boolean overdue;
+    private Integer createdFrom;
+    private Integer createdTo;
+    private final int today = (int) LocalDate.now(ZoneOffset.UTC).toEpochDay();
+
+    /**
+     * Build a filter from request parameters, any of which may be null.
+     *
+     * @param categories comma separated category ids, "none" for tasks without category
+     * @throws IllegalArgumentException if a value cannot be parsed or a window is reversed
+     */
+    public static TaskFilter of(Boolean completed, String categories, String dueFrom, String dueTo,
+                                Boolean overdue, String createdFrom, String createdTo) {
+        TaskFilter filter = new TaskFilter();
+        filter.completed = completed;
+        filter.overdue = overdue;
+        if (categories != null) {
+            String[] values = categories.split(",");
+            int[] ids = new int[values.length];
+            int count = 0;
+            for (String value : values) {
+                value = value.trim();
+                if (NO_CATEGORY.equals(value)) {
+                    filter.withoutCategory = true;
+                } else {
+                    try {
+                        ids[count++] = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("category must be a list of category ids or none");
+                    }
+                }
+            }
+            filter.categoryIds = Arrays.copyOf(ids, count);
+        }
+        filter.dueFrom = parameterDay(dueFrom, "due_from");
+        filter.dueTo = parameterDay(dueTo, "due_to");
+        filter.createdFrom = parameterDay(createdFrom, "created_from");
+        filter.createdTo = parameterDay(createdTo, "created_to");
+        if (filter.dueFrom != null && filter.dueTo != null && filter.dueTo < filter.dueFrom
+                || filter.createdFrom != null && filter.createdTo != null && filter.createdTo < filter.createdFrom) {
+            throw new IllegalArgumentException("Date windows must not end before they start");
+        }
+        return filter;
+    }
+
+    private static Integer parameterDay(String value, String name) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return (int) LocalDate.parse(value.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " must be a date (YYYY-MM-DD)");
+        }
+    }
+
+    /**
+     * Epoch day of a stored date or timestamp, as SQLite's
+     * julianday(substr(text, 1, 10)) reads it: YYYY-MM-DD, with days past the end of
+     * the month rolling over into the next one.
+     *
+     * @return the day, or null if the text does not start with such a date
+     */
+    public static Integer day(String text) {
+        if (text == null || text.length() < 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+        for (int i : new int[]{0, 1, 2, 3, 5, 6, 8, 9}) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return null;
+            }
+        }
+        int year = Integer.parseInt(text, 0, 4, 10);
+        int month = Integer.parseInt(text, 5, 7, 10);
+        int day = Integer.parseInt(text, 8, 10, 10);
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return null;
+        }
+        return (int) LocalDate.of(year, month, 1).toEpochDay() + day - 1;
+    }
+
+    /**
+     * Whether a task satisfies every predicate.
+     */
+    public boolean matches(Task task) {
+        boolean done = task.getCompleted() != null && task.getCompleted() != 0;
+        if (completed != null && completed != done) {
+            return false;
+        }
+        if (categoryIds != null && !matchesCategory(task.getCategoryId())) {
+            return false;
+        }
+        Integer due = day(task.getDueDate());
+        if ((dueFrom != null || dueTo != null) && !inWindow(due, dueFrom, dueTo)) {
+            return false;
+        }
+        if (overdue != null && overdue != (!done && due != null && due <= today)) {
+            return false;
+        }
+        return createdFrom == null && createdTo == null || inWindow(day(task.getCreatedAt()), createdFrom, createdTo);
+    }
+
+    private boolean matchesCategory(Integer categoryId) {
+        if (categoryId == null) {
+            return withoutCategory;
+        }
+        for (int id : categoryIds) {
+            if (id == categoryId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inWindow(Integer day, Integer from, Integer to) {
+        return day != null && (from == null || day >= from) && (to == null || day <= to);
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return the category ids to match, or null when categories are not filtered
+     */
+    public int[] getCategoryIds() {
+        return categoryIds;
+    }
+
+    public boolean isWithoutCategory() {
+        return withoutCategory;
+    }
+
+    public Integer getDueFrom() {
+        return dueFrom;
+    }
+
+    public Integer getDueTo() {
+        return dueTo;
+    }
+
+    public Boolean getOverdue() {
+        return overdue;
+    }
+
+    public Integer getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public Integer getCreatedTo() {
+        return createdTo;
+    }
+
+    /**
+     * Today as an epoch day (UTC), fixed when the filter was built.
+     */
+    public int getToday() {
+        return today;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.taskstodo.model;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One full-text search hit: the task, its highlighted title and a highlighted
+ * excerpt of its description, and the BM25 score (lower is a better match).
+ *
+ * Highlights are HTML: the task text is escaped and every word that starts with
+ * a searched word (ignoring case and accents) is wrapped in &lt;mark&gt;, so the
+ * frontend can insert them as they are. They are built here rather than with
+ * SQLite's highlight(), because the index holds owner-scoped terms, not the text.
+ */
+public class TaskSearchResult {
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}\\p{M}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MAX_WORDS = 8;
+    private static final int SNIPPET_WORDS = 12;
+    private static final int SNIPPET_LEAD = 3;
+
+    private final Task task;
+    private final String title;
+    private final String snippet;
+    private final double score;
+
+    public TaskSearchResult(Task task, String title, String snippet, double score) {
+        this.task = task;
+        this.title = title;
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    /**
+     * Build a hit, highlighting the given words (as returned by {@link #words(String)}).
+     */
+    public static TaskSearchResult of(Task task, List<String> words, double score) {
+        String title = task.getTitle() != null ? highlight(task.getTitle(), 0, task.getTitle().length(), words) : null;
+        return new TaskSearchResult(task, title, snippet(task.getDescription(), words), score);
+    }
+
+    /**
+     * Split a search query into lower-case words without accents, as the index stores them.
+     * Punctuation separates words; at most 8 words are kept.
+     */
+    public static List<String> words(String query) {
+        List<String> words = new ArrayList<>();
+        Matcher matcher = WORD.matcher(query);
+        while (matcher.find() && words.size() < MAX_WORDS) {
+            String word = normalize(matcher.group());
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * About 12 words of the description around its first match (its start if none matches).
+     */
+    private static String snippet(String text, List<String> words) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        List<int[]> spans = new ArrayList<>();
+        int first = -1;
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            if (first < 0 && matches(matcher.group(), words)) {
+                first = spans.size();
+            }
+            spans.add(new int[]{matcher.start(), matcher.end()});
+        }
+        if (spans.size() <= SNIPPET_WORDS) {
+            return highlight(text, 0, text.length(), words);
+        }
+        int from = Math.max(0, Math.min(first - SNIPPET_LEAD, spans.size() - SNIPPET_WORDS));
+        int to = from + SNIPPET_WORDS;
+        String excerpt = highlight(text, spans.get(from)[0], spans.get(to - 1)[1], words);
+        return (from > 0 ? "…" : "") + excerpt + (to < spans.size() ? "…" : "");
+    }
+
+    private static String highlight(String text, int start, int end, List<String> words) {
+        StringBuilder html = new StringBuilder(end - start + 32);
+        Matcher matcher = WORD.matcher(text).region(start, end);
+        int last = start;
+        while (matcher.find()) {
+            escape(text, last, matcher.start(), html);
+            if (matches(matcher.group(), words)) {
+                html.append("<mark>");
+                escape(text, matcher.start(), matcher.end(), html);
+                html.append("</mark>");
+            } else {
+                escape(text, matcher.start(), matcher.end(), html);
+            }
+            last = matcher.end();
+        }
+        escape(text, last, end, html);
+        return html.toString();
+    }
+
+    private static boolean matches(String token, List<String> words) {
+        String normalized = normalize(token);
+        for (String word : words) {
+            if (normalized.startsWith(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String word) {
+        return DIACRITICS.matcher(Normalizer.normalize(word, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static void escape(String text, int start, int end, StringBuilder html) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': html.append("&amp;"); break;
+                case '<': html.append("&lt;"); break;
+                case '>': html.append("&gt;"); break;
+                case '"': html.append("&quot;"); break;
+                case '\'': html.append("&#39;"); break;
+                default: html.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.taskstodo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Task counters for a user's dashboard: totals plus the same counters per category.
+ * Overdue means not completed with a due date in the past.
+ */
+public class TaskStats {
+    private int total;
+    private int completed;
+    private int overdue;
+    private final List<CategoryCount> byCategory = new ArrayList<>();
+
+    /**
+     * Add the counters of one category (null for tasks without category) to the totals.
+     */
+    public void add(Integer categoryId, int total, int completed, int overdue) {
+        this.total += total;
+        this.completed += completed;
+        this.overdue += overdue;
+        byCategory.add(new CategoryCount(categoryId, total, completed, overdue));
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getPending() {
+        return total - completed;
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    public List<CategoryCount> getByCategory() {
+        return byCategory;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskStats{" +
+                "total=" + total +
+                ", completed=" + completed +
+                ", overdue=" + overdue +
+                ", byCategory=" + byCategory.size() +
+                '}';
+    }
+
+    public static class CategoryCount {
+        private final Integer categoryId;
+        private final int total;
+        private final int completed;
+        private final int overdue;
+
+        public CategoryCount(Integer categoryId, int total, int completed, int overdue) {
+            this.categoryId = categoryId;
+            this.total = total;
+            this.completed = completed;
+            this.overdue = overdue;
+        }
+
+        public Integer getCategoryId() {
+            return categoryId;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getPending() {
+            return total - completed;
+        }
+
+        public int getOverdue() {
+            return overdue;
+        }
+    }
+}
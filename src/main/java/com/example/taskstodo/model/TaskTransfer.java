@@ -0,0 +1,297 @@
+package com.example.taskstodo.model;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Formats of GET /api/tasks/user/{userId}/export and POST .../import.
+ *
+ * NDJSON is one task per line, as the task list serializes it. CSV (RFC 4180) has a
+ * header line with {@link #CSV_COLUMNS}; fields with commas, quotes or line breaks are
+ * quoted. Both are read back by name, in either spelling (category_id or categoryId),
+ * so an export can be imported as it is. id and user_id are ignored on import: tasks
+ * get new ids and belong to the importing user.
+ *
+ * CSV exports are opened in spreadsheets, which run a cell starting with =, +, -, @,
+ * tab or carriage return as a formula. Such text fields are written with a leading '
+ * (shown as text, not kept by the spreadsheet), also when the value already starts
+ * with ' before one of those characters; the CSV import removes exactly one ' in the
+ * same cases, so titles and descriptions come back unchanged.
+ */
+public final class TaskTransfer {
+    public static final List<String> CSV_COLUMNS =
+            List.of("id", "title", "description", "category_id", "due_date", "completed", "created_at");
+
+    private TaskTransfer() {
+    }
+
+    public static void writeCsvHeader(Writer out) throws IOException {
+        out.write(String.join(",", CSV_COLUMNS));
+        out.write("\r\n");
+    }
+
+    public static void writeCsv(Writer out, Task task) throws IOException {
+        out.write(task.getId() != null ? task.getId().toString() : "");
+        out.write(',');
+        writeCsvField(out, task.getTitle());
+        out.write(',');
+        writeCsvField(out, task.getDescription());
+        out.write(',');
+        out.write(task.getCategoryId() != null ? task.getCategoryId().toString() : "");
+        out.write(',');
+        writeCsvField(out, task.getDueDate());
+        out.write(',');
+        out.write(task.getCompleted() != null ? task.getCompleted().toString() : "");
+        out.write(',');
+        writeCsvField(out, task.getCreatedAt());
+        out.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (startsFormula(value, 0)) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Whether a spreadsheet would read the value as a formula once the 's from start on
+     * are skipped (see the class comment).
+     */
+    private static boolean startsFormula(String value, int start) {
+        int i = start;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        if (i == value.length()) {
+            return false;
+        }
+        char c = value.charAt(i);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    /**
+     * Field name as looked up on import: lower case without underscores.
+     */
+    public static String fieldName(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Build a task to import from one row, keyed by {@link #fieldName(String)}.
+     * Empty optional fields count as absent; created_at defaults to now.
+     *
+     * @param categoryIds ids of the existing categories
+     * @throws IllegalArgumentException with the reason when the row is not valid
+     */
+    public static Task toTask(Map<String, ?> row, int userId, Set<Integer> categoryIds) {
+        String title = text(row.get("title"), "title");
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        Integer categoryId = integer(row.get("categoryid"), "category_id");
+        if (categoryId != null && !categoryIds.contains(categoryId)) {
+            throw new IllegalArgumentException("category_id " + categoryId + " does not exist");
+        }
+        Integer completed = completed(row.get("completed"));
+        Task task = new Task(title, text(row.get("description"), "description"), categoryId, userId,
+                date(row.get("duedate"), "due_date"), completed != null ? completed : 0);
+        task.setCreatedAt(date(row.get("createdat"), "created_at"));
+        return task;
+    }
+
+    private static String text(Object value, String name) {
+        if (value instanceof Map || value instanceof List) {
+            throw new IllegalArgumentException(name + " must be text");
+        }
+        String text = value != null ? value.toString() : null;
+        return text == null || text.isEmpty() ? null : text;
+    }
+
+    private static Integer integer(Object value, String name) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number && number.doubleValue() == number.intValue()) {
+            return number.intValue();
+        }
+        if (value instanceof String text) {
+            if (text.isBlank()) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException(name + " must be an integer");
+    }
+
+    private static Integer completed(Object value) {
+        if (value instanceof Boolean done) {
+            return done ? 1 : 0;
+        }
+        if (value instanceof String text && ("true".equalsIgnoreCase(text.trim()) || "false".equalsIgnoreCase(text.trim()))) {
+            return "true".equalsIgnoreCase(text.trim()) ? 1 : 0;
+        }
+        return integer(value, "completed");
+    }
+
+    private static String date(Object value, String name) {
+        String text = text(value, name);
+        if (text != null && TaskFilter.day(text) == null) {
+            throw new IllegalArgumentException(name + " must start with a date (YYYY-MM-DD)");
+        }
+        return text;
+    }
+
+    /**
+     * Streaming RFC 4180 reader: one record at a time, quoted fields may span lines.
+     * Reads through its own buffer, so the Reader does not need to be buffered.
+     */
+    public static final class CsvReader {
+        private final Reader reader;
+        private final char[] buffer = new char[16384];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private long line = 1;
+        private long recordLine;
+
+        public CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return the next record's fields, or null at the end of the input
+         * @throws IllegalArgumentException if a quoted field is not closed
+         */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> record = new ArrayList<>(CSV_COLUMNS.size());
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Quoted field starting on line " + recordLine + " is not closed");
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    record.add(field.toString());
+                    return record;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        /**
+         * Line on which the last record returned by {@link #next()} starts.
+         */
+        public long getLine() {
+            return recordLine;
+        }
+
+        /**
+         * One record as a row for {@link #toTask(Map, int, Set)}, keyed by the header's
+         * field names, with the formula guard of the export removed.
+         */
+        public static Map<String, Object> row(Map<String, Integer> columns, List<String> record) {
+            Map<String, Object> row = new HashMap<>();
+            for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                if (column.getValue() < record.size()) {
+                    String value = record.get(column.getValue());
+                    row.put(column.getKey(), value.startsWith("'") && startsFormula(value, 1) ? value.substring(1) : value);
+                }
+            }
+            return row;
+        }
+
+        /**
+         * A header record as a column index per {@link #fieldName(String)}.
+         */
+        public static Map<String, Integer> columns(List<String> header) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                // A byte order mark from spreadsheet exports is not part of the name
+                columns.putIfAbsent(fieldName(header.get(i).replace("\uFEFF", "").trim()), i);
+            }
+            return columns;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int count = reader.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = count;
+            return true;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.taskstodo.repository;
 
+import com.example.taskstodo.cache.CategoryCache;
 import com.example.taskstodo.model.Category;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -13,85 +15,73 @@ import java.util.List;
 @Repository
 public class CategoryRepository {
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate writeJdbc;
+    private final CategoryCache cache;
 
-    public CategoryRepository(JdbcTemplate jdbc) {
+    public CategoryRepository(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                              CategoryCache cache) {
         this.jdbc = jdbc;
+        this.writeJdbc = writeJdbc;
+        this.cache = cache;
     }
 
     /**
-     * Initialize the categories table and insert default categories.
-     * Called once during application startup.
+     * Retrieve all categories.
+     * Served from the in-process snapshot; the database is only read after a change.
      */
-    public void initializeCategories() {
-        // Create table if it doesn't exist
-        jdbc.execute("CREATE TABLE IF NOT EXISTS categories (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "name TEXT NOT NULL UNIQUE" +
-                ");");
-
-        // Insert default categories if they don't exist
-        String[] defaultCategories = {"Estudo", "Trabalho", "Pessoal", "Urgente"};
-        for (String categoryName : defaultCategories) {
-            try {
-                jdbc.update(
-                        "INSERT INTO categories (name) VALUES (?)",
-                        categoryName
-                );
-            } catch (Exception e) {
-                // Category already exists, skip
-            }
-        }
+    public List<Category> findAll() {
+        return findAllSnapshot().getCategories();
     }
 
     /**
-     * Retrieve all categories from the database.
+     * Retrieve the cached snapshot of all categories together with its ETag.
      */
-    public List<Category> findAll() {
-        return jdbc.query(
+    public CategoryCache.Snapshot findAllSnapshot() {
+        return cache.get(() -> jdbc.query(
                 "SELECT id, name FROM categories ORDER BY id",
                 (rs, rowNum) -> new Category(rs.getInt("id"), rs.getString("name"))
-        );
+        ));
     }
 
     /**
      * Find a category by id.
      */
     public Category findById(int id) {
-        try {
-            return jdbc.queryForObject(
-                    "SELECT id, name FROM categories WHERE id = ?",
-                    (rs, rowNum) -> new Category(rs.getInt("id"), rs.getString("name")),
-                    id
-            );
-        } catch (Exception e) {
-            return null;
+        for (Category category : findAll()) {
+            if (category.getId() == id) {
+                return category;
+            }
         }
+        return null;
     }
 
     /**
      * Create a new category.
      */
     public void save(Category category) {
-        jdbc.update(
+        writeJdbc.update(
                 "INSERT INTO categories (name) VALUES (?)",
                 category.getName()
         );
+        cache.invalidate();
     }
 
     /**
      * Update an existing category.
      */
     public void update(Category category) {
-        jdbc.update(
+        writeJdbc.update(
                 "UPDATE categories SET name = ? WHERE id = ?",
                 category.getName(), category.getId()
         );
+        cache.invalidate();
     }
 
     /**
      * Delete a category by id.
      */
     public void deleteById(int id) {
-        jdbc.update("DELETE FROM categories WHERE id = ?", id);
+        writeJdbc.update("DELETE FROM categories WHERE id = ?", id);
+        cache.invalidate();
     }
 }
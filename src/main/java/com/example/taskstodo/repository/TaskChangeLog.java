@@ -0,0 +1,162 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.model.TaskChanges;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user task change log (table task_changes, migration 5) for incremental sync.
+ *
+ * Triggers on the tasks table add an entry for every insert, update and delete in the
+ * same transaction as the write, so direct writes, batches and write-behind flushes are
+ * all logged and a committed task write always has its entry. Revisions come from one
+ * AUTOINCREMENT sequence: they are never reused and grow for every user, with gaps.
+ *
+ * A sync reads the user's entries after the client's revision (index on user_id, rev)
+ * and joins the newest one per task with the current row: the task for an upsert,
+ * nothing for a tombstone. Its cost follows the changes since that revision, not the
+ * size of the list.
+ *
+ * Compaction runs every compact-minutes: it drops entries superseded by a newer entry
+ * of the same task, so the log holds about one entry per task, and tombstones older
+ * than tombstone-days. The newest dropped tombstone of each user is kept as the user's
+ * horizon; clients behind it get a full reset instead of changes.
+ */
+@Repository
+public class TaskChangeLog {
+    private static final String NEWEST_CHANGES_SQL =
+            "SELECT c.rev, c.task_id, t.id, t.title, t.description, t.category_id, t.user_id, t.due_date, t.completed, t.created_at " +
+                    "FROM (SELECT task_id, MAX(rev) AS rev FROM task_changes WHERE user_id = ? AND rev > ? GROUP BY task_id) c " +
+                    "LEFT JOIN tasks t ON t.id = c.task_id AND t.user_id = ? " +
+                    "ORDER BY c.rev";
+    private static final String LAST_REVISION_SQL = "SELECT seq FROM sqlite_sequence WHERE name = 'task_changes'";
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate writeJdbc;
+    private final TransactionTemplate writeTransaction;
+    private final TaskWriteBehind writeBehind;
+    private final int tombstoneDays;
+    private final ScheduledThreadPoolExecutor compactor;
+
+    // Entries up to this revision have no superseded entries left (0 = not compacted yet)
+    private long compactedThrough;
+
+    public TaskChangeLog(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                         @Qualifier("writeTransactionTemplate") TransactionTemplate writeTransaction,
+                         TaskWriteBehind writeBehind,
+                         @Value("${app.tasks.changes.compact-minutes:60}") long compactMinutes,
+                         @Value("${app.tasks.changes.tombstone-days:30}") int tombstoneDays) {
+        this.jdbc = jdbc;
+        this.writeJdbc = writeJdbc;
+        this.writeTransaction = writeTransaction;
+        this.writeBehind = writeBehind;
+        this.tombstoneDays = tombstoneDays;
+        if (compactMinutes > 0) {
+            this.compactor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "task-change-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::scheduledCompact, compactMinutes, compactMinutes, TimeUnit.MINUTES);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    /**
+     * Changes of a user's tasks after a revision. Queued write-behind mutations are
+     * flushed first, so the log holds every write the caller has seen.
+     *
+     * @param since revision of the client's last sync, 0 for everything
+     */
+    public TaskChanges findChanges(Integer userId, long since) {
+        writeBehind.flushPending();
+        if (since > 0) {
+            TaskChanges changes = newestChanges(userId, since, false);
+            // Checked after reading: compaction in between can only make a reset more likely
+            if (since >= horizon(userId) && since <= lastRevision()) {
+                return changes;
+            }
+        }
+        return newestChanges(userId, 0, true);
+    }
+
+    private TaskChanges newestChanges(Integer userId, long since, boolean reset) {
+        TaskChanges changes = new TaskChanges(since, reset);
+        jdbc.query(NEWEST_CHANGES_SQL,
+                (RowCallbackHandler) rs -> changes.add(
+                        rs.getLong("rev"),
+                        rs.getInt("task_id"),
+                        rs.getObject("id") != null ? TaskRepository.TASK_ROW_MAPPER.mapRow(rs, 0) : null),
+                userId, since, userId);
+        return changes;
+    }
+
+    private long horizon(Integer userId) {
+        List<Long> revisions = jdbc.queryForList("SELECT rev FROM task_change_horizons WHERE user_id = ?", Long.class, userId);
+        return revisions.isEmpty() ? 0 : revisions.get(0);
+    }
+
+    private long lastRevision() {
+        List<Long> revisions = jdbc.queryForList(LAST_REVISION_SQL, Long.class);
+        return revisions.isEmpty() ? 0 : revisions.get(0);
+    }
+
+    /**
+     * Drop superseded entries and expired tombstones in one write transaction.
+     * Superseded entries are only looked for among tasks changed since the last run.
+     *
+     * @return the number of entries removed
+     */
+    public synchronized int compact() {
+        long[] through = new long[1];
+        Integer removed = writeTransaction.execute(status -> {
+            List<Long> revisions = writeJdbc.queryForList(LAST_REVISION_SQL, Long.class);
+            through[0] = revisions.isEmpty() ? 0 : revisions.get(0);
+
+            int superseded = writeJdbc.update(
+                    "DELETE FROM task_changes WHERE task_id IN (SELECT task_id FROM task_changes WHERE rev > ?) " +
+                            "AND EXISTS (SELECT 1 FROM task_changes newer WHERE newer.task_id = task_changes.task_id " +
+                            "AND newer.user_id = task_changes.user_id AND newer.rev > task_changes.rev)",
+                    compactedThrough);
+
+            String cutoff = writeJdbc.queryForObject("SELECT datetime('now', ?)", String.class, "-" + tombstoneDays + " days");
+            writeJdbc.update(
+                    "INSERT INTO task_change_horizons (user_id, rev) " +
+                            "SELECT user_id, MAX(rev) FROM task_changes WHERE deleted = 1 AND changed_at < ? GROUP BY user_id " +
+                            "ON CONFLICT (user_id) DO UPDATE SET rev = MAX(rev, excluded.rev)",
+                    cutoff);
+            int expired = writeJdbc.update("DELETE FROM task_changes WHERE deleted = 1 AND changed_at < ?", cutoff);
+            return superseded + expired;
+        });
+        compactedThrough = through[0];
+        return removed != null ? removed : 0;
+    }
+
+    private void scheduledCompact() {
+        try {
+            int removed = compact();
+            if (removed > 0) {
+                System.out.println("✓ Task change log compacted: " + removed + " entries removed");
+            }
+        } catch (Exception e) {
+            System.err.println("Task change log compaction failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+}
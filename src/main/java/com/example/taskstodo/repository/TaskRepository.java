@@ -1,11 +1,37 @@
 package com.example.taskstodo.repository;
 
+import com.example.taskstodo.cache.TaskCache;
+import com.example.taskstodo.cache.TaskColumnStore;
 import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskCursor;
+import com.example.taskstodo.model.TaskFilter;
+import com.example.taskstodo.model.TaskSearchResult;
+import com.example.taskstodo.model.TaskStats;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Repository for managing tasks using JDBC.
@@ -13,47 +39,110 @@ import java.util.Optional;
  */
 @Repository
 public class TaskRepository {
+    private static final String SELECT_TASK =
+            "SELECT id, title, description, category_id, user_id, due_date, completed, created_at ";
+
+    static final RowMapper<Task> TASK_ROW_MAPPER = (rs, rowNum) -> new Task(
+            rs.getInt("id"),
+            rs.getString("title"),
+            rs.getString("description"),
+            rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
+            rs.getInt("user_id"),
+            rs.getString("due_date"),
+            rs.getInt("completed"),
+            rs.getString("created_at")
+    );
+
+    private static final String INSERT_TASK_SQL =
+            "INSERT INTO tasks (title, description, category_id, user_id, due_date, completed) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "RETURNING id, title, description, category_id, user_id, due_date, completed, created_at";
+    // A whole import chunk in one statement, the rows bound as one JSON array of arrays. FTS5
+    // flushes its pending index data when a statement run by the tasks_fts_insert trigger ends,
+    // so one statement per row writes an index segment per task (~3 ms each on a large index).
+    private static final String IMPORT_TASKS_SQL =
+            "INSERT INTO tasks (title, description, category_id, user_id, due_date, completed, created_at) " +
+                    "SELECT value ->> 0, value ->> 1, value ->> 2, ?, value ->> 3, value ->> 4, " +
+                    "COALESCE(value ->> 5, datetime('now')) FROM json_each(?)";
+    private static final JsonFactory JSON = new JsonFactory();
+    static final String UPDATE_TASK_SQL =
+            "UPDATE tasks SET title = ?, description = ?, category_id = ?, due_date = ?, completed = ? WHERE id = ?";
+    static final String MARK_COMPLETED_SQL = "UPDATE tasks SET completed = ? WHERE id = ?";
+    static final String DELETE_TASK_SQL = "DELETE FROM tasks WHERE id = ?";
+    private static final String RETURNING_USER_ID = " RETURNING user_id";
+
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate writeJdbc;
+    private final TransactionTemplate writeTransaction;
+    private final TaskWriteBehind writeBehind;
+    private final TaskCache cache;
+    private final TaskColumnStore memory;
+    // Orders every task write with its cache patch, see ordered()
+    private final ReentrantLock cacheOrder = new ReentrantLock();
 
-    public TaskRepository(JdbcTemplate jdbc) {
+    public TaskRepository(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                          @Qualifier("writeTransactionTemplate") TransactionTemplate writeTransaction,
+                          TaskWriteBehind writeBehind, TaskCache cache, TaskColumnStore memory) {
         this.jdbc = jdbc;
+        this.writeJdbc = writeJdbc;
+        this.writeTransaction = writeTransaction;
+        this.writeBehind = writeBehind;
+        this.cache = cache;
+        this.memory = memory;
+        writeBehind.onDropped(this::restore);
     }
 
     /**
-     * Initialize the tasks table if it doesn't exist.
+     * Get all tasks for a specific user.
+     * Served from the per-user task cache; the returned list must not be modified.
+     * Cache misses are answered by the in-memory store when it is enabled.
      */
-    public void initializeTasks() {
-        jdbc.execute("CREATE TABLE IF NOT EXISTS tasks (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "title TEXT NOT NULL, " +
-                "description TEXT, " +
-                "category_id INTEGER, " +
-                "user_id INTEGER NOT NULL, " +
-                "due_date TEXT, " +
-                "completed INTEGER DEFAULT 0, " +
-                "created_at TEXT DEFAULT (datetime('now')), " +
-                "FOREIGN KEY(category_id) REFERENCES categories(id), " +
-                "FOREIGN KEY(user_id) REFERENCES users(id)" +
-                ");");
+    public List<Task> findByUserId(Integer userId) {
+        if (memory.isEnabled()) {
+            return cache.get(userId, () -> memory.findByUserId(userId));
+        }
+        return cache.get(userId, () -> writeBehind.read(() -> jdbc.query(
+                SELECT_TASK + "FROM tasks WHERE user_id = ? ORDER BY created_at DESC, id DESC",
+                TASK_ROW_MAPPER,
+                userId
+        )));
     }
 
     /**
-     * Get all tasks for a specific user.
+     * Get one page of a user's tasks using keyset pagination on (created_at, id).
+     * Pass a null cursor for the first page; each following page starts strictly
+     * after the last task of the previous one, so the cost does not grow with the offset.
      */
-    public List<Task> findByUserId(Integer userId) {
-        return jdbc.query(
-                "SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
-                        "FROM tasks WHERE user_id = ? ORDER BY created_at DESC",
-                (rs, rowNum) -> new Task(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
-                        rs.getInt("user_id"),
-                        rs.getString("due_date"),
-                        rs.getInt("completed"),
-                        rs.getString("created_at")
-                ),
+    public List<Task> findPageByUserId(Integer userId, TaskCursor after, int limit) {
+        if (after == null) {
+            return writeBehind.read(() -> jdbc.query(
+                    SELECT_TASK + "FROM tasks WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT ?",
+                    TASK_ROW_MAPPER,
+                    userId, limit
+            ));
+        }
+        return writeBehind.read(() -> jdbc.query(
+                SELECT_TASK + "FROM tasks WHERE user_id = ? " +
+                        "AND (created_at < ? OR (created_at = ? AND id < ?)) " +
+                        "ORDER BY created_at DESC, id DESC LIMIT ?",
+                TASK_ROW_MAPPER,
+                userId, after.getCreatedAt(), after.getCreatedAt(), after.getId(), limit
+        ));
+    }
+
+    /**
+     * Stream all tasks of a user to the given consumer while the ResultSet is read.
+     * Rows are never collected into a list, so memory stays flat regardless of task count.
+     */
+    public void forEachByUserId(Integer userId, Consumer<Task> action) {
+        jdbc.query(
+                SELECT_TASK + "FROM tasks WHERE user_id = ? ORDER BY created_at DESC, id DESC",
+                (RowCallbackHandler) rs -> {
+                    Task task = writeBehind.overlay(TASK_ROW_MAPPER.mapRow(rs, 0));
+                    if (task != null) {
+                        action.accept(task);
+                    }
+                },
                 userId
         );
     }
@@ -62,22 +151,15 @@ public class TaskRepository {
      * Find a task by id.
      */
     public Optional<Task> findById(Integer id) {
+        if (memory.isEnabled()) {
+            return Optional.ofNullable(memory.findById(id));
+        }
         try {
-            List<Task> tasks = jdbc.query(
-                    "SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
-                            "FROM tasks WHERE id = ?",
-                    (rs, rowNum) -> new Task(
-                            rs.getInt("id"),
-                            rs.getString("title"),
-                            rs.getString("description"),
-                            rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
-                            rs.getInt("user_id"),
-                            rs.getString("due_date"),
-                            rs.getInt("completed"),
-                            rs.getString("created_at")
-                    ),
+            List<Task> tasks = writeBehind.read(() -> jdbc.query(
+                    SELECT_TASK + "FROM tasks WHERE id = ?",
+                    TASK_ROW_MAPPER,
                     id
-            );
+            ));
             return tasks.isEmpty() ? Optional.empty() : Optional.of(tasks.get(0));
         } catch (Exception e) {
             return Optional.empty();
@@ -86,84 +168,389 @@ public class TaskRepository {
 
     /**
      * Create a new task.
+     * The row is inserted and read back in one statement (INSERT ... RETURNING),
+     * so the generated id and created_at come back without a second query.
      */
     public Task save(Task task) {
-        jdbc.update(
-                "INSERT INTO tasks (title, description, category_id, user_id, due_date, completed) " +
-                        "VALUES (?, ?, ?, ?, ?, ?)",
-                task.getTitle(),
-                task.getDescription(),
-                task.getCategoryId(),
-                task.getUserId(),
-                task.getDueDate(),
-                task.getCompleted() != null ? task.getCompleted() : 0
-        );
-        // Fetch the newly created task
-        List<Task> tasks = jdbc.query(
-                "SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
-                        "FROM tasks WHERE user_id = ? ORDER BY id DESC LIMIT 1",
-                (rs, rowNum) -> new Task(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
-                        rs.getInt("user_id"),
-                        rs.getString("due_date"),
-                        rs.getInt("completed"),
-                        rs.getString("created_at")
-                ),
-                task.getUserId()
-        );
-        return tasks.isEmpty() ? task : tasks.get(0);
+        return ordered(() -> {
+            Task saved = memory.write(() -> {
+                Task row = writeJdbc.queryForObject(INSERT_TASK_SQL, TASK_ROW_MAPPER, insertArgs(task));
+                memory.added(row);
+                return row;
+            });
+            cache.added(saved);
+            return saved;
+        });
+    }
+
+    /**
+     * Create several tasks in a single transaction on the writer connection.
+     * The statement is prepared once and reused for every row.
+     *
+     * @return the created tasks, in the same order, with ids and created_at filled in
+     */
+    public List<Task> saveAll(List<Task> tasks) {
+        List<Task> created = memory.write(() -> {
+            List<Task> rows = insertAll(tasks);
+            rows.forEach(memory::added);
+            return rows;
+        });
+        created.stream().map(Task::getUserId).distinct().forEach(cache::invalidate);
+        return created;
+    }
+
+    private List<Task> insertAll(List<Task> tasks) {
+        return writeTransaction.execute(status -> writeJdbc.execute((ConnectionCallback<List<Task>>) connection -> {
+            List<Task> saved = new ArrayList<>(tasks.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_TASK_SQL)) {
+                for (Task task : tasks) {
+                    Object[] args = insertArgs(task);
+                    for (int i = 0; i < args.length; i++) {
+                        statement.setObject(i + 1, args[i]);
+                    }
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rs.next();
+                        saved.add(TASK_ROW_MAPPER.mapRow(rs, saved.size()));
+                    }
+                }
+            }
+            return saved;
+        }));
+    }
+
+    /**
+     * Insert one chunk of imported tasks of a user in a single transaction and statement
+     * (no rows are read back, unlike {@link #saveAll(List)}). Tasks keep their created_at
+     * when set. The in-memory store reads the new rows by id range: the writer connection
+     * is the only one inserting, so a chunk gets consecutive ids.
+     *
+     * @return the number of tasks inserted
+     */
+    public int importAll(Integer userId, List<Task> tasks) {
+        String rows = importRows(tasks);
+        memory.write(() -> {
+            List<Task> created = writeTransaction.execute(status -> {
+                writeJdbc.update(IMPORT_TASKS_SQL, userId, rows);
+                if (!memory.isEnabled()) {
+                    return List.of();
+                }
+                Long lastId = writeJdbc.queryForObject("SELECT last_insert_rowid()", Long.class);
+                return writeJdbc.query(SELECT_TASK + "FROM tasks WHERE id BETWEEN ? AND ? ORDER BY id",
+                        TASK_ROW_MAPPER, lastId - tasks.size() + 1, lastId);
+            });
+            created.forEach(memory::added);
+            return created;
+        });
+        cache.invalidate(userId);
+        return tasks.size();
+    }
+
+    private static String importRows(List<Task> tasks) {
+        StringWriter json = new StringWriter(tasks.size() * 96);
+        try (JsonGenerator generator = JSON.createGenerator(json)) {
+            generator.writeStartArray();
+            for (Task task : tasks) {
+                generator.writeStartArray();
+                generator.writeString(task.getTitle());
+                generator.writeString(task.getDescription());
+                if (task.getCategoryId() != null) {
+                    generator.writeNumber(task.getCategoryId());
+                } else {
+                    generator.writeNull();
+                }
+                generator.writeString(task.getDueDate());
+                generator.writeNumber(task.getCompleted() != null ? task.getCompleted() : 0);
+                generator.writeString(task.getCreatedAt());
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
     }
 
     /**
      * Update an existing task.
+     * Queued instead of written immediately when write-behind is enabled.
+     *
+     * @throws IllegalArgumentException if the title is missing
      */
     public void update(Task task) {
-        jdbc.update(
-                "UPDATE tasks SET title = ?, description = ?, category_id = ?, due_date = ?, completed = ? WHERE id = ?",
-                task.getTitle(),
-                task.getDescription(),
-                task.getCategoryId(),
-                task.getDueDate(),
-                task.getCompleted(),
-                task.getId()
-        );
+        // Checked before queuing: a failing row would otherwise only fail at flush time
+        if (task.getTitle() == null || task.getTitle().isBlank()) {
+            throw new IllegalArgumentException("Title is required");
+        }
+        if (writeBehind.isEnabled()) {
+            CompletableFuture<Void> queued = ordered(() -> {
+                CompletableFuture<Void> write = writeBehind.queueUpdate(task);
+                memory.updated(task);
+                cache.updated(task);
+                return write;
+            });
+            writeBehind.awaitQueued(queued);
+            return;
+        }
+        ordered(() -> memory.write(() -> {
+            writeJdbc.update(UPDATE_TASK_SQL, updateArgs(task));
+            memory.updated(task);
+            cache.updated(task);
+            return null;
+        }));
     }
 
     /**
      * Delete a task by id.
+     * Queued instead of written immediately when write-behind is enabled.
      */
     public void deleteById(Integer id) {
-        jdbc.update("DELETE FROM tasks WHERE id = ?", id);
+        if (writeBehind.isEnabled()) {
+            // Tasks never change owner, so the lookup can run before the lock
+            Optional<Integer> owner = findOwner(id);
+            CompletableFuture<Void> queued = ordered(() -> {
+                CompletableFuture<Void> write = writeBehind.queueDelete(id);
+                memory.removed(id);
+                owner.ifPresent(userId -> cache.removed(userId, id));
+                return write;
+            });
+            writeBehind.awaitQueued(queued);
+            return;
+        }
+        ordered(() -> memory.write(() -> {
+            List<Integer> owners = writeJdbc.query(DELETE_TASK_SQL + RETURNING_USER_ID, (rs, rowNum) -> rs.getInt(1), id);
+            memory.removed(id);
+            owners.forEach(userId -> cache.removed(userId, id));
+            return null;
+        }));
     }
 
     /**
      * Mark a task as completed.
+     * Queued instead of written immediately when write-behind is enabled.
      */
     public void markCompleted(Integer id, Integer completed) {
-        jdbc.update("UPDATE tasks SET completed = ? WHERE id = ?", completed, id);
+        if (writeBehind.isEnabled()) {
+            Optional<Integer> owner = findOwner(id);
+            CompletableFuture<Void> queued = ordered(() -> {
+                CompletableFuture<Void> write = writeBehind.queueMarkCompleted(id, completed);
+                memory.completed(id, completed);
+                owner.ifPresent(userId -> cache.completed(userId, id, completed));
+                return write;
+            });
+            writeBehind.awaitQueued(queued);
+            return;
+        }
+        ordered(() -> memory.write(() -> {
+            List<Integer> owners = writeJdbc.query(MARK_COMPLETED_SQL + RETURNING_USER_ID, (rs, rowNum) -> rs.getInt(1), completed, id);
+            memory.completed(id, completed);
+            owners.forEach(userId -> cache.completed(userId, id, completed));
+            return null;
+        }));
+    }
+
+    /**
+     * Run a task write together with the cache patch it causes, one at a time. Patches
+     * replace cached values instead of reloading them, so two writes to the same task must
+     * patch in the order they reach the database (or the write-behind queue); otherwise
+     * the older value stays cached until the list is evicted. Writes that only invalidate
+     * a user's list need no ordering. Just runs the write when the cache is disabled.
+     */
+    private <T> T ordered(Supplier<T> writeAndPatch) {
+        if (!cache.isEnabled()) {
+            return writeAndPatch.get();
+        }
+        cacheOrder.lock();
+        try {
+            return writeAndPatch.get();
+        } finally {
+            cacheOrder.unlock();
+        }
+    }
+
+    /**
+     * A queued write was dropped: bring the in-memory store and the cached list back in
+     * line with the database, plus whatever is still queued for the task.
+     */
+    private void restore(Integer id) {
+        Integer previousOwner = memory.isEnabled() ? memory.ownerOf(id) : null;
+        List<Task> rows = writeJdbc.query(SELECT_TASK + "FROM tasks WHERE id = ?", TASK_ROW_MAPPER, id);
+        Task row = rows.isEmpty() ? null : writeBehind.overlay(rows.get(0));
+        if (row != null) {
+            memory.added(row);
+            cache.invalidate(row.getUserId());
+        } else {
+            memory.removed(id);
+        }
+        if (previousOwner != null && (row == null || !previousOwner.equals(row.getUserId()))) {
+            cache.invalidate(previousOwner);
+        }
     }
 
     /**
      * Get tasks by category for a specific user.
      */
     public List<Task> findByUserIdAndCategoryId(Integer userId, Integer categoryId) {
-        return jdbc.query(
-                "SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
-                        "FROM tasks WHERE user_id = ? AND category_id = ? ORDER BY created_at DESC",
-                (rs, rowNum) -> new Task(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
+        List<Task> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            List<Task> tasks = new ArrayList<>();
+            for (Task task : cached) {
+                if (categoryId.equals(task.getCategoryId())) {
+                    tasks.add(task);
+                }
+            }
+            return tasks;
+        }
+        if (memory.isEnabled()) {
+            return memory.findByUserIdAndCategoryId(userId, categoryId);
+        }
+        List<Task> tasks = writeBehind.read(() -> jdbc.query(
+                SELECT_TASK + "FROM tasks WHERE user_id = ? AND category_id = ? ORDER BY created_at DESC, id DESC",
+                TASK_ROW_MAPPER,
+                userId, categoryId
+        ));
+        tasks.removeIf(task -> !categoryId.equals(task.getCategoryId()));
+        return tasks;
+    }
+
+    /**
+     * Get a user's tasks matching every predicate of a filter, newest first.
+     * Answered from the in-memory store's bitmap indexes when it is enabled, otherwise
+     * by filtering the user's (cached) task list.
+     */
+    public List<Task> filterByUserId(Integer userId, TaskFilter filter) {
+        if (memory.isEnabled()) {
+            return memory.filter(userId, filter);
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (Task task : findByUserId(userId)) {
+            if (filter.matches(task)) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Owner of a task, looked up by primary key so write-behind mutations
+     * (which only know the task id) can patch the right cached list.
+     */
+    private Optional<Integer> findOwner(Integer id) {
+        if (memory.isEnabled()) {
+            return Optional.ofNullable(memory.ownerOf(id));
+        }
+        List<Integer> owners = jdbc.query("SELECT user_id FROM tasks WHERE id = ?", (rs, rowNum) -> rs.getInt(1), id);
+        return owners.isEmpty() ? Optional.empty() : Optional.of(owners.get(0));
+    }
+
+    /**
+     * Count a user's tasks (total, completed, overdue, per category) in one aggregate query.
+     * Queued write-behind mutations are flushed first, since counts cannot be overlaid.
+     */
+    public TaskStats countByUserId(Integer userId) {
+        writeBehind.flushPending();
+        TaskStats stats = new TaskStats();
+        jdbc.query(
+                "SELECT category_id, COUNT(*) AS total, " +
+                        "SUM(COALESCE(completed, 0) <> 0) AS completed, " +
+                        "SUM(COALESCE(completed, 0) = 0 AND due_date IS NOT NULL AND due_date <> '' " +
+                        "AND julianday(due_date) < julianday('now')) AS overdue " +
+                        "FROM tasks WHERE user_id = ? GROUP BY category_id ORDER BY category_id",
+                (RowCallbackHandler) rs -> stats.add(
                         rs.getObject("category_id") != null ? rs.getInt("category_id") : null,
-                        rs.getInt("user_id"),
-                        rs.getString("due_date"),
+                        rs.getInt("total"),
                         rs.getInt("completed"),
-                        rs.getString("created_at")
-                ),
-                userId, categoryId
+                        rs.getInt("overdue")),
+                userId
+        );
+        return stats;
+    }
+
+    /**
+     * Get a user's tasks due between two dates (inclusive), ordered by due date.
+     * Uses the indexed due_day column, so the cost depends only on the tasks in the window.
+     */
+    public List<Task> findByUserIdAndDueDateBetween(Integer userId, LocalDate from, LocalDate to) {
+        // Queued write-behind changes may move tasks into the window, which an overlay cannot add
+        writeBehind.flushPending();
+        return jdbc.query(
+                SELECT_TASK + "FROM tasks WHERE user_id = ? AND due_day BETWEEN ? AND ? ORDER BY due_day, id",
+                TASK_ROW_MAPPER,
+                userId, from.toEpochDay(), to.toEpochDay()
+        );
+    }
+
+    /**
+     * Count a user's tasks per due date between two dates (inclusive).
+     * Days without tasks are omitted.
+     */
+    public Map<LocalDate, Integer> countByUserIdPerDueDate(Integer userId, LocalDate from, LocalDate to) {
+        writeBehind.flushPending();
+        Map<LocalDate, Integer> counts = new LinkedHashMap<>();
+        jdbc.query(
+                "SELECT due_day, COUNT(*) FROM tasks WHERE user_id = ? AND due_day BETWEEN ? AND ? " +
+                        "GROUP BY due_day ORDER BY due_day",
+                (RowCallbackHandler) rs -> counts.put(LocalDate.ofEpochDay(rs.getLong(1)), rs.getInt(2)),
+                userId, from.toEpochDay(), to.toEpochDay()
+        );
+        return counts;
+    }
+
+    /**
+     * Full-text search over a user's task titles and descriptions (FTS5 index tasks_fts).
+     * Every word of the query must start a word of the task, ignoring case and accents.
+     * Hits are ranked by BM25 with title matches weighing more than description ones.
+     *
+     * The index stores each word as u<user_id>x<word>, so the search only reads the
+     * posting lists of this user's tasks and its cost does not grow with other users' data.
+     *
+     * @return the best hits first; empty when the query has no searchable words
+     */
+    public List<TaskSearchResult> searchByUserId(Integer userId, String query, int limit) {
+        List<String> words = TaskSearchResult.words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        // Words hold only letters, digits and marks, so they are safe inside FTS5 quotes
+        StringBuilder match = new StringBuilder();
+        for (String word : words) {
+            match.append(match.length() > 0 ? " " : "")
+                    .append("\"u").append(userId).append('x').append(word).append("\"*");
+        }
+
+        writeBehind.flushPending();
+        return jdbc.query(
+                "SELECT t.id, t.title, t.description, t.category_id, t.user_id, t.due_date, t.completed, t.created_at, " +
+                        "bm25(tasks_fts, 4.0, 1.0) AS score " +
+                        "FROM tasks_fts JOIN tasks t ON t.id = tasks_fts.rowid " +
+                        "WHERE tasks_fts MATCH ? ORDER BY score LIMIT ?",
+                (rs, rowNum) -> TaskSearchResult.of(TASK_ROW_MAPPER.mapRow(rs, rowNum), words, rs.getDouble("score")),
+                match.toString(),
+                limit
         );
     }
+
+    private static Object[] insertArgs(Task task) {
+        return new Object[]{
+                task.getTitle(),
+                task.getDescription(),
+                task.getCategoryId(),
+                task.getUserId(),
+                task.getDueDate(),
+                task.getCompleted() != null ? task.getCompleted() : 0
+        };
+    }
+
+    /**
+     * Parameters for {@link #UPDATE_TASK_SQL}, shared with the write-behind batch.
+     */
+    static Object[] updateArgs(Task task) {
+        return new Object[]{
+                task.getTitle(),
+                task.getDescription(),
+                task.getCategoryId(),
+                task.getDueDate(),
+                task.getCompleted(),
+                task.getId()
+        };
+    }
 }
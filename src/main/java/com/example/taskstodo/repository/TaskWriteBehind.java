@@ -0,0 +1,413 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.model.Task;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind buffer for task mutations (app.tasks.write-behind.enabled).
+ *
+ * update, markCompleted and deleteById are queued instead of running their own
+ * autocommit statement. Queued writes are coalesced per task id (last write wins,
+ * a delete supersedes everything) and flushed in a single transaction with
+ * JdbcTemplate.batchUpdate, either after max-delay-ms or as soon as max-batch
+ * distinct tasks are waiting. The queue holds at most queue-capacity tasks;
+ * when it is full the caller flushes inline, which pushes back on bursts.
+ *
+ * Durability:
+ * - COMMIT: the caller blocks until the batch containing its write is committed
+ *   (group commit: many requests share one transaction and one fsync)
+ * - ASYNC: the caller returns as soon as the write is queued; a crash may lose
+ *   up to max-delay-ms of writes
+ *
+ * Writes that are queued or being flushed are overlaid on every read through
+ * {@link #read(Supplier)}, so readers always see their own writes.
+ * Everything left in the queue is flushed on shutdown.
+ *
+ * A batch mixes every user's writes, so when it fails it is retried one write at a
+ * time and only the writes that fail again are dropped: their callers get the error
+ * (COMMIT) and the {@link #onDropped(Consumer)} listener repairs the caches that were
+ * patched when they were queued.
+ */
+@Component
+public class TaskWriteBehind {
+    public enum Durability { COMMIT, ASYNC }
+
+    private final JdbcTemplate writeJdbc;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final long maxDelayMs;
+    private final int maxBatch;
+    private final int queueCapacity;
+    private final Durability durability;
+
+    // Enqueuers share the read lock; swapping the pending map takes the write lock
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong commitEpoch = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+
+    private volatile Map<Integer, PendingWrite> pending = new ConcurrentHashMap<>();
+    private volatile Map<Integer, PendingWrite> inflight = Map.of();
+    private volatile Consumer<Integer> droppedListener = id -> { };
+
+    public TaskWriteBehind(@Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                           @Qualifier("writeTransactionTemplate") TransactionTemplate writeTransaction,
+                           @Value("${app.tasks.write-behind.enabled:false}") boolean enabled,
+                           @Value("${app.tasks.write-behind.max-delay-ms:20}") long maxDelayMs,
+                           @Value("${app.tasks.write-behind.max-batch:500}") int maxBatch,
+                           @Value("${app.tasks.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.tasks.write-behind.durability:COMMIT}") Durability durability) {
+        this.writeJdbc = writeJdbc;
+        this.writeTransaction = writeTransaction;
+        this.enabled = enabled;
+        this.maxDelayMs = maxDelayMs;
+        this.maxBatch = maxBatch;
+        this.queueCapacity = queueCapacity;
+        this.durability = durability;
+        if (enabled) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "task-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // On shutdown drop the pending timer; the final flush runs in shutdown()
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            this.flusher = executor;
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Called with the task id of every write that could not be stored, after its batch
+     * is no longer overlaid on reads.
+     */
+    public void onDropped(Consumer<Integer> listener) {
+        this.droppedListener = listener;
+    }
+
+    /**
+     * Queue a full update of a task.
+     */
+    public void update(Task task) {
+        awaitQueued(queueUpdate(task));
+    }
+
+    /**
+     * Queue a change of the completed flag.
+     */
+    public void markCompleted(Integer id, Integer completed) {
+        awaitQueued(queueMarkCompleted(id, completed));
+    }
+
+    /**
+     * Queue a delete.
+     */
+    public void deleteById(Integer id) {
+        awaitQueued(queueDelete(id));
+    }
+
+    /**
+     * Queue a full update without waiting for it. Pass the result to
+     * {@link #awaitQueued(CompletableFuture)} once outside any lock held while queuing,
+     * so COMMIT callers still share a flush. Likewise for the other queue methods.
+     */
+    CompletableFuture<Void> queueUpdate(Task task) {
+        return enqueue(new PendingWrite(task.getId(), copy(task), null, false, null));
+    }
+
+    CompletableFuture<Void> queueMarkCompleted(Integer id, Integer completed) {
+        return enqueue(new PendingWrite(id, null, completed, false, null));
+    }
+
+    CompletableFuture<Void> queueDelete(Integer id) {
+        return enqueue(new PendingWrite(id, null, null, true, null));
+    }
+
+    /**
+     * Under COMMIT durability, block until the queued write is committed.
+     */
+    void awaitQueued(CompletableFuture<Void> committed) {
+        if (durability == Durability.COMMIT) {
+            awaitCommit(committed);
+        }
+    }
+
+    /**
+     * Run a query and apply queued and in-flight writes to its rows, dropping queued deletes.
+     * If a batch finished committing while the query ran, the query is repeated so that
+     * rows read before the commit are never overlaid with an already-cleared batch.
+     */
+    public List<Task> read(Supplier<List<Task>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        while (true) {
+            long epoch = commitEpoch.get();
+            List<Task> rows = query.get();
+            List<Task> result = overlay(rows);
+            if (commitEpoch.get() == epoch) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Apply queued and in-flight writes to a single row read from the database.
+     * Used while streaming, where the query cannot be repeated.
+     *
+     * @return the row as it will look once flushed, or null if it is queued for deletion
+     */
+    public Task overlay(Task row) {
+        // Read pending before inflight: flush() publishes inflight before replacing pending
+        Map<Integer, PendingWrite> queued = pending;
+        Map<Integer, PendingWrite> flushing = inflight;
+        if (flushing.isEmpty() && queued.isEmpty()) {
+            return row;
+        }
+        Task result = row;
+        PendingWrite write = flushing.get(row.getId());
+        if (write != null) {
+            result = write.applyTo(result);
+        }
+        write = queued.get(row.getId());
+        if (write != null && result != null) {
+            result = write.applyTo(result);
+        }
+        return result;
+    }
+
+    private List<Task> overlay(List<Task> rows) {
+        if (pending.isEmpty() && inflight.isEmpty()) {
+            return rows;
+        }
+        List<Task> result = new ArrayList<>(rows.size());
+        for (Task row : rows) {
+            Task task = overlay(row);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write everything queued so far in one transaction.
+     */
+    public void flush() {
+        List<Integer> dropped = new ArrayList<>();
+        flushLock.lock();
+        try {
+            Map<Integer, PendingWrite> batch;
+            swapLock.writeLock().lock();
+            try {
+                batch = pending;
+                if (batch.isEmpty()) {
+                    return;
+                }
+                inflight = batch;
+                pending = new ConcurrentHashMap<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            try {
+                writeBatch(batch.values());
+                batch.values().forEach(write -> write.committed.complete(null));
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao gravar lote de tarefas, gravando uma a uma: " + e.getMessage());
+                for (PendingWrite write : batch.values()) {
+                    try {
+                        writeBatch(List.of(write));
+                        write.committed.complete(null);
+                    } catch (RuntimeException writeError) {
+                        System.err.println("Erro ao gravar tarefa " + write.taskId + ": " + writeError.getMessage());
+                        write.committed.completeExceptionally(writeError);
+                        dropped.add(write.taskId);
+                    }
+                }
+            } finally {
+                inflight = Map.of();
+                commitEpoch.incrementAndGet();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        dropped.forEach(droppedListener);
+    }
+
+    /**
+     * Flush now if anything is queued or still being written.
+     * For queries whose results cannot be overlaid, such as aggregates.
+     */
+    public void flushPending() {
+        if (enabled && (!pending.isEmpty() || !inflight.isEmpty())) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private CompletableFuture<Void> enqueue(PendingWrite write) {
+        PendingWrite queued;
+        int size;
+        while (true) {
+            swapLock.readLock().lock();
+            try {
+                Map<Integer, PendingWrite> current = pending;
+                if (current.size() < queueCapacity || current.containsKey(write.taskId)) {
+                    queued = current.merge(write.taskId, write, PendingWrite::then);
+                    size = current.size();
+                    break;
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+            // Queue full: flush on the caller's thread before queuing more
+            flush();
+        }
+
+        if (size >= maxBatch) {
+            flusher.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, maxDelayMs, TimeUnit.MILLISECONDS);
+        }
+        return queued.committed;
+    }
+
+    private void awaitCommit(CompletableFuture<Void> committed) {
+        try {
+            committed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for task write", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to write task: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void writeBatch(Collection<PendingWrite> batch) {
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> completions = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (write.delete) {
+                deletes.add(new Object[]{write.taskId});
+            } else if (write.task != null) {
+                updates.add(TaskRepository.updateArgs(write.task));
+            } else {
+                completions.add(new Object[]{write.completed, write.taskId});
+            }
+        }
+
+        writeTransaction.executeWithoutResult(status -> {
+            if (!deletes.isEmpty()) {
+                writeJdbc.batchUpdate(TaskRepository.DELETE_TASK_SQL, deletes);
+            }
+            if (!updates.isEmpty()) {
+                writeJdbc.batchUpdate(TaskRepository.UPDATE_TASK_SQL, updates);
+            }
+            if (!completions.isEmpty()) {
+                writeJdbc.batchUpdate(TaskRepository.MARK_COMPLETED_SQL, completions);
+            }
+        });
+    }
+
+    private static Task copy(Task task) {
+        return new Task(task.getId(), task.getTitle(), task.getDescription(), task.getCategoryId(),
+                task.getUserId(), task.getDueDate(), task.getCompleted(), task.getCreatedAt());
+    }
+
+    /**
+     * One coalesced write for a task: a delete, a full update, or a completed flag change.
+     * Immutable; coalescing creates a new instance that keeps the first commit future,
+     * so every caller whose write was folded in is released by the same flush.
+     */
+    private static final class PendingWrite {
+        final Integer taskId;
+        final Task task;
+        final Integer completed;
+        final boolean delete;
+        final CompletableFuture<Void> committed;
+
+        PendingWrite(Integer taskId, Task task, Integer completed, boolean delete, CompletableFuture<Void> committed) {
+            this.taskId = taskId;
+            this.task = task;
+            this.completed = completed;
+            this.delete = delete;
+            this.committed = committed != null ? committed : new CompletableFuture<>();
+        }
+
+        /**
+         * Fold a later write for the same task into this one.
+         */
+        PendingWrite then(PendingWrite next) {
+            if (delete || next.delete) {
+                return new PendingWrite(taskId, null, null, true, committed);
+            }
+            if (next.task != null) {
+                return new PendingWrite(taskId, next.task, null, false, committed);
+            }
+            if (task != null) {
+                Task merged = copy(task);
+                merged.setCompleted(next.completed);
+                return new PendingWrite(taskId, merged, null, false, committed);
+            }
+            return new PendingWrite(taskId, null, next.completed, false, committed);
+        }
+
+        Task applyTo(Task row) {
+            if (delete) {
+                return null;
+            }
+            Task result = copy(task != null ? task : row);
+            result.setCreatedAt(row.getCreatedAt());
+            if (task == null) {
+                result.setCompleted(completed);
+            }
+            return result;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.taskstodo.repository;
 
 import com.example.taskstodo.model.User;
+import com.example.taskstodo.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
@@ -16,32 +18,20 @@ import java.util.Optional;
  * - Proteção contra SQL Injection (using PreparedStatements)
  * - Gerenciamento de credenciais
  * 
- * Nota: Senhas são armazenadas em texto simples (use BCrypt em produção)
+ * Senhas são armazenadas como hash PBKDF2 (ver PasswordHasher); linhas antigas
+ * em texto simples são convertidas no próximo login bem-sucedido.
  */
 @Repository
 public class UserRepository {
     private final JdbcTemplate jdbc;
+    private final JdbcTemplate writeJdbc;
+    private final PasswordHasher passwordHasher;
 
-    public UserRepository(JdbcTemplate jdbc) {
+    public UserRepository(JdbcTemplate jdbc, @Qualifier("writeJdbcTemplate") JdbcTemplate writeJdbc,
+                          PasswordHasher passwordHasher) {
         this.jdbc = jdbc;
-    }
-
-    /**
-     * Inicializa a tabela de usuários se não existir.
-     * 
-     * Estrutura:
-     * - id: Chave primária auto-incrementada
-     * - username: Nome de usuário único (não nulo)
-     * - password: Senha do usuário (não nulo)
-     * - created_at: Timestamp de criação
-     */
-    public void initializeUsers() {
-        jdbc.execute("CREATE TABLE IF NOT EXISTS users (" +
-                "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                "username TEXT NOT NULL UNIQUE, " +
-                "password TEXT NOT NULL, " +
-                "created_at TEXT DEFAULT (datetime('now'))" +
-                ");");
+        this.writeJdbc = writeJdbc;
+        this.passwordHasher = passwordHasher;
     }
 
     /**
@@ -56,6 +46,7 @@ public class UserRepository {
      * @param password Senha do usuário
      * @return Objeto User com os dados salvos (incluindo ID)
      * @throws Exception Se username já existe ou dados inválidos
+     * @throws PasswordHasher.BusyException Se o pool de hashing estiver saturado
      */
     public User register(String username, String password) throws Exception {
         // Validação de entrada
@@ -78,15 +69,21 @@ public class UserRepository {
         }
 
         try {
+            // Hash calculado fora da transação, no pool de hashing
+            String hash = passwordHasher.hash(password);
+
             // Usa PreparedStatement (via JdbcTemplate) - protegido contra SQL Injection
-            jdbc.update(
+            writeJdbc.update(
                     "INSERT INTO users (username, password) VALUES (?, ?)",
-                    username, password
+                    username, hash
             );
             
             // Retorna o usuário recém criado
             return findByUsername(username).orElse(null);
         } catch (Exception e) {
+            if (e instanceof PasswordHasher.BusyException) {
+                throw e;
+            }
             // Tratamento de erro de constraint UNIQUE
             if (e.getMessage() != null && e.getMessage().contains("UNIQUE")) {
                 throw new Exception("Este nome de usuário já está em uso");
@@ -100,15 +97,14 @@ public class UserRepository {
      * 
      * Fluxo:
      * 1. Busca usuário no banco pelo username
-     * 2. Verifica se a senha está correta
-     * 3. Retorna o usuário se credenciais válidas
-     * 
-     * Nota: Implementação atual usa comparação direta de password
-     *       Em produção, usar BCrypt para hash de password
+     * 2. Verifica a senha contra o hash no pool de hashing
+     * 3. Se a senha ainda está em texto simples ou com custo antigo, grava um novo hash
+     * 4. Retorna o usuário se credenciais válidas
      * 
      * @param username Nome de usuário
      * @param password Senha do usuário
      * @return Optional contendo o User se credenciais válidas
+     * @throws PasswordHasher.BusyException Se o pool de hashing estiver saturado
      */
     public Optional<User> login(String username, String password) {
         try {
@@ -118,19 +114,18 @@ public class UserRepository {
                 return Optional.empty();
             }
             
-            // Usa PreparedStatement - protegido contra SQL Injection
-            List<User> users = jdbc.query(
-                    "SELECT id, username, password FROM users WHERE username = ? AND password = ?",
-                    (rs, rowNum) -> new User(
-                        rs.getInt("id"), 
-                        rs.getString("username"), 
-                        rs.getString("password")
-                    ),
-                    username.trim(), 
-                    password
-            );
-            
-            return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+            Optional<User> user = findByUsername(username.trim());
+            if (!passwordHasher.verify(password, user.map(User::getPassword).orElse(null))) {
+                return Optional.empty();
+            }
+
+            User found = user.get();
+            if (passwordHasher.needsRehash(found.getPassword())) {
+                upgradePassword(found, password);
+            }
+            return user;
+        } catch (PasswordHasher.BusyException e) {
+            throw e;
         } catch (Exception e) {
             // Log do erro em sistema real
             System.err.println("Erro durante login: " + e.getMessage());
@@ -138,6 +133,21 @@ public class UserRepository {
         }
     }
 
+    /**
+     * Substitui a senha armazenada (texto simples ou hash antigo) por um hash atual.
+     * Só grava se a linha não mudou desde a leitura; falhas não impedem o login.
+     */
+    private void upgradePassword(User user, String password) {
+        try {
+            String hash = passwordHasher.hash(password);
+            writeJdbc.update("UPDATE users SET password = ? WHERE id = ? AND password = ?",
+                    hash, user.getId(), user.getPassword());
+            user.setPassword(hash);
+        } catch (Exception e) {
+            System.err.println("Erro ao atualizar hash da senha: " + e.getMessage());
+        }
+    }
+
     /**
      * Find user by username.
      */
@@ -174,7 +184,7 @@ public class UserRepository {
      * Update a user.
      */
     public void update(User user) {
-        jdbc.update(
+        writeJdbc.update(
                 "UPDATE users SET username = ?, password = ? WHERE id = ?",
                 user.getUsername(), user.getPassword(), user.getId()
         );
@@ -184,6 +194,6 @@ public class UserRepository {
      * Delete a user by id.
      */
     public void deleteById(Integer id) {
-        jdbc.update("DELETE FROM users WHERE id = ?", id);
+        writeJdbc.update("DELETE FROM users WHERE id = ?", id);
     }
 }
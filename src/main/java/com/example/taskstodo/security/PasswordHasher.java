@@ -0,0 +1,262 @@
+package com.example.taskstodo.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password hashing with PBKDF2-HMAC-SHA256 (JDK only, no extra dependency).
+ *
+ * Hashing is deliberately slow, so it runs on a dedicated pool of hash-threads
+ * workers with a queue of hash-queue requests instead of on Tomcat threads. When
+ * both are full the caller gets a {@link BusyException} right away (the API answers
+ * 429) rather than piling up behind a login storm.
+ *
+ * The iteration count is calibrated at startup so one hash takes about
+ * hash-target-ms on this machine (never below hash-min-iterations), unless
+ * hash-iterations fixes it, which also saves the calibration time at startup.
+ * Stored hashes carry their own iteration count:
+ * pbkdf2-sha256$iterations$salt$hash (Base64), so raising the cost later only
+ * affects new hashes, and {@link #needsRehash(String)} reports the old ones. A
+ * calibrated count varies a little between startups, so only hashes below half of
+ * it (and below hash-min-iterations) count as old; with hash-iterations, any count
+ * below it does.
+ *
+ * Values without that prefix are legacy plaintext passwords; they still verify
+ * (constant-time compare) so they can be upgraded on the next login.
+ */
+@Component
+public class PasswordHasher {
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int iterations;
+    private final int rehashBelow;
+    private final Future<String> dummyHash;
+
+    public PasswordHasher(@Value("${app.auth.hash-target-ms:100}") long targetMs,
+                          @Value("${app.auth.hash-min-iterations:50000}") int minIterations,
+                          @Value("${app.auth.hash-iterations:0}") int fixedIterations,
+                          @Value("${app.auth.hash-threads:0}") int hashThreads,
+                          @Value("${app.auth.hash-queue:64}") int queueSize,
+                          @Value("${app.auth.hash-benchmark:false}") boolean benchmark) {
+        this.threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        if (fixedIterations > 0) {
+            // No calibration or timing hashes: a fixed cost keeps startup short
+            this.iterations = fixedIterations;
+            System.out.printf("✓ Password hashing: PBKDF2-SHA256, %d iterations (fixed) on %d threads%n", iterations, threads);
+        } else {
+            this.iterations = calibrate(targetMs, minIterations);
+            long nanos = time(iterations);
+            System.out.printf("✓ Password hashing: PBKDF2-SHA256, %d iterations (~%d ms/hash, ~%.0f logins/s on %d threads)%n",
+                    iterations, TimeUnit.NANOSECONDS.toMillis(nanos), threads * 1e9 / nanos, threads);
+        }
+        // Timing noise must not make every stored hash look outdated after a restart
+        this.rehashBelow = fixedIterations > 0 ? fixedIterations : Math.max(minIterations, iterations / 2);
+
+        // Verified when the username does not exist, so both cases cost the same.
+        // Computed on the hashing pool so it does not hold up startup.
+        this.dummyHash = executor.submit(() -> encode(iterations, newSalt(), "dummy-password".toCharArray()));
+
+        if (benchmark) {
+            benchmark(new int[]{iterations / 4, iterations / 2, iterations, iterations * 2});
+        }
+    }
+
+    /**
+     * Hash a password on the hashing pool.
+     *
+     * @throws BusyException if the pool and its queue are full
+     */
+    public String hash(String password) {
+        return submit(() -> encode(iterations, newSalt(), password.toCharArray()));
+    }
+
+    /**
+     * Check a password against a stored value (hash or legacy plaintext) on the hashing pool.
+     * Pass null as stored value for an unknown user: a dummy hash is checked instead,
+     * so response time does not reveal whether the username exists.
+     *
+     * @throws BusyException if the pool and its queue are full
+     */
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            String dummy = await(dummyHash);
+            submit(() -> matches(password, dummy));
+            return false;
+        }
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return submit(() -> matches(password, stored));
+    }
+
+    /**
+     * Whether a stored value should be replaced by a fresh hash: it is plaintext
+     * or was hashed with clearly fewer iterations than the current setting.
+     */
+    public boolean needsRehash(String stored) {
+        if (!isHash(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || Integer.parseInt(parts[1]) < rehashBelow;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Measure logins/s with all hashing threads busy, for each iteration count.
+     */
+    public void benchmark(int[] costs) {
+        for (int cost : costs) {
+            int hashes = threads * 4;
+            long start = System.nanoTime();
+            List<Future<String>> futures = new ArrayList<>(hashes);
+            for (int i = 0; i < hashes; i++) {
+                futures.add(executor.submit(() -> encode(cost, newSalt(), "benchmark".toCharArray())));
+            }
+            for (Future<String> future : futures) {
+                await(future);
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("  PBKDF2 %7d iterations: %6.1f ms/hash, %7.1f logins/s%n",
+                    cost, nanos / 1e6 * threads / hashes, hashes * 1e9 / nanos);
+        }
+    }
+
+    private int calibrate(long targetMs, int minIterations) {
+        // Double the cost until a hash takes long enough to time reliably. Each step keeps
+        // timing for a while and takes the best run, so JIT warm-up does not skew the result.
+        int probe = 1000;
+        long nanos;
+        while (true) {
+            long settleEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            nanos = time(probe);
+            while (System.nanoTime() < settleEnd) {
+                nanos = Math.min(nanos, time(probe));
+            }
+            if (nanos >= TimeUnit.MILLISECONDS.toNanos(20) || probe >= (1 << 24)) {
+                break;
+            }
+            probe *= 2;
+        }
+        long calibrated = probe * TimeUnit.MILLISECONDS.toNanos(targetMs) / Math.max(1, nanos);
+        return (int) Math.max(minIterations, Math.min(Integer.MAX_VALUE, calibrated));
+    }
+
+    /**
+     * Best of three single-threaded hashes, in nanoseconds.
+     */
+    private long time(int cost) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encode(cost, newSalt(), "calibration".toCharArray());
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private <T> T submit(Callable<T> work) {
+        try {
+            return await(executor.submit(work));
+        } catch (RejectedExecutionException e) {
+            throw new BusyException();
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static boolean matches(String password, String stored) {
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        byte[] salt = Base64.getDecoder().decode(parts[2]);
+        byte[] expected = Base64.getDecoder().decode(parts[3]);
+        return MessageDigest.isEqual(expected, derive(Integer.parseInt(parts[1]), salt, password.toCharArray()));
+    }
+
+    private static String encode(int cost, byte[] salt, char[] password) {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + cost + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(derive(cost, salt, password));
+    }
+
+    private static byte[] derive(int cost, byte[] salt, char[] password) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, cost, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private byte[] newSalt() {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return salt;
+    }
+
+    /**
+     * Thrown when the hashing pool cannot take more work; answer 429 and let the client retry.
+     */
+    public static class BusyException extends RuntimeException {
+        public BusyException() {
+            super("Password hashing capacity exhausted");
+        }
+    }
+}
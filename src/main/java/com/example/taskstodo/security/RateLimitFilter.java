@@ -0,0 +1,72 @@
+package com.example.taskstodo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits /api requests with {@link RateLimiter}, answering 429 with Retry-After
+ * (whole seconds) when a client's bucket is empty:
+ * - login and register: LOGIN budget per IP address
+ * - other requests: READ (GET, HEAD) or WRITE budget per user of the session
+ *
+ * Runs after {@link TokenAuthenticationFilter}, so requests are counted against the
+ * verified user rather than something the client chose. The IP address is the
+ * connection's; behind a proxy set server.forward-headers-strategy so it is the client's.
+ */
+@Component
+@Order(TokenAuthenticationFilter.ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> LOGIN_PATHS = Set.of("/api/auth/login", "/api/auth/register");
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+
+    public RateLimitFilter(RateLimiter rateLimiter, @Value("${app.ratelimit.enabled:true}") boolean enabled) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getServletPath().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        TokenService.Session session = (TokenService.Session) request.getAttribute(TokenAuthenticationFilter.SESSION);
+        RateLimiter.Budget budget;
+        Object client;
+        if (LOGIN_PATHS.contains(path)) {
+            budget = RateLimiter.Budget.LOGIN;
+            client = request.getRemoteAddr();
+        } else {
+            String method = request.getMethod();
+            budget = "GET".equals(method) || "HEAD".equals(method) ? RateLimiter.Budget.READ : RateLimiter.Budget.WRITE;
+            client = session != null ? session.getUserId() : request.getRemoteAddr();
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(budget, client);
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setStatus(429);
+            response.setHeader("Retry-After", Long.toString(seconds));
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"Muitas requisições, tente novamente em " + seconds + " s\"}");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
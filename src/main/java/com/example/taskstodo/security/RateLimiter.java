@@ -0,0 +1,127 @@
+package com.example.taskstodo.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client (user id or IP address), with a separate budget for reads,
+ * writes and logins (app.ratelimit.*: rate = tokens per second, burst = bucket size).
+ *
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA, the
+ * token bucket written as "when will the bucket have room again"): taking a token is
+ * one compare-and-set, with no lock and no refill timer. Buckets live in one
+ * ConcurrentHashMap per budget, whose lookups do not lock either; contention exists
+ * only between requests of the same client.
+ *
+ * A bucket whose arrival time has passed is full, the same as a missing one, so the
+ * sweep every idle-seconds simply drops those. A request racing with the sweep may go
+ * uncounted, which only ever errs on the side of letting it through.
+ */
+@Component
+public class RateLimiter {
+    public enum Budget { READ, WRITE, LOGIN }
+
+    private final Map<Budget, Limit> limits = new EnumMap<>(Budget.class);
+    private final ScheduledThreadPoolExecutor sweeper;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${app.ratelimit.read.rate:50}") double readRate,
+                       @Value("${app.ratelimit.read.burst:100}") int readBurst,
+                       @Value("${app.ratelimit.write.rate:10}") double writeRate,
+                       @Value("${app.ratelimit.write.burst:40}") int writeBurst,
+                       @Value("${app.ratelimit.login.rate:0.2}") double loginRate,
+                       @Value("${app.ratelimit.login.burst:10}") int loginBurst,
+                       @Value("${app.ratelimit.idle-seconds:60}") long idleSeconds) {
+        limits.put(Budget.READ, new Limit(readRate, readBurst));
+        limits.put(Budget.WRITE, new Limit(writeRate, writeBurst));
+        limits.put(Budget.LOGIN, new Limit(loginRate, loginBurst));
+        for (Map.Entry<Budget, Limit> entry : limits.entrySet()) {
+            Limit limit = entry.getValue();
+            String budget = entry.getKey().name().toLowerCase();
+            limit.rejected = Counter.builder("http.ratelimit.rejected")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+            Gauge.builder("http.ratelimit.buckets", limit.buckets, Map::size)
+                    .description("Clients tracked by the rate limiter")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+        }
+
+        this.sweeper = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, idleSeconds, idleSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Take a token from a client's bucket.
+     *
+     * @param client user id or IP address
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it could
+     */
+    public long tryAcquire(Budget budget, Object client) {
+        Limit limit = limits.get(budget);
+        long now = System.nanoTime();
+        AtomicLong bucket = limit.buckets.get(client);
+        if (bucket == null) {
+            bucket = limit.buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long wait = start - limit.tolerance - now;
+            if (wait > 0) {
+                limit.rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + limit.interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop full buckets.
+     */
+    void sweep() {
+        long now = System.nanoTime();
+        for (Limit limit : limits.values()) {
+            limit.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private static final class Limit {
+        // Nanoseconds per token, and how far ahead of now the arrival time may run (burst - 1 tokens)
+        final long interval;
+        final long tolerance;
+        final Map<Object, AtomicLong> buckets = new ConcurrentHashMap<>();
+        Counter rejected;
+
+        Limit(double rate, int burst) {
+            if (rate <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate limits need rate > 0 and burst >= 1");
+            }
+            this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            this.tolerance = interval * (burst - 1);
+        }
+    }
+}
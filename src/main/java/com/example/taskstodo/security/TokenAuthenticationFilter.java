@@ -0,0 +1,78 @@
+package com.example.taskstodo.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Requires a valid session token (Authorization: Bearer ...) on every /api request
+ * except login and register, and stores the verified session in the request
+ * attribute {@link #SESSION}. Verification is CPU only (see {@link TokenService}).
+ *
+ * Event streams (GET .../events) also accept the token as the access_token query
+ * parameter, since the browser's EventSource cannot send headers. Only there, so
+ * tokens do not end up in URLs (and access logs) of other requests.
+ *
+ * Which user's data a session may touch is checked after routing, by
+ * {@link UserScopeInterceptor} and by the endpoints that load a task by id.
+ */
+@Component
+@Order(TokenAuthenticationFilter.ORDER)
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    public static final String SESSION = "taskstodo.session";
+    /**
+     * Filter order; filters that need the session run after it.
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    private static final String BEARER = "Bearer ";
+    private static final String TOKEN_PARAMETER = "access_token";
+    private static final String EVENTS_SUFFIX = "/events";
+    private static final Set<String> PUBLIC_PATHS = Set.of("/api/auth/login", "/api/auth/register");
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Servlet path is decoded and normalized (no ;params or dot segments), unlike the raw URI
+        String path = request.getServletPath() + (request.getPathInfo() != null ? request.getPathInfo() : "");
+        return !path.startsWith("/api/") || PUBLIC_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        String token = header != null && header.startsWith(BEARER) ? header.substring(BEARER.length()).trim() : null;
+        if (token == null && "GET".equals(request.getMethod()) && request.getServletPath().endsWith(EVENTS_SUFFIX)) {
+            token = request.getParameter(TOKEN_PARAMETER);
+        }
+        TokenService.Session session = tokenService.verify(token);
+        if (session == null) {
+            response.setHeader("WWW-Authenticate", "Bearer");
+            reject(response, 401, "Sessão inválida ou expirada, faça login novamente");
+            return;
+        }
+        request.setAttribute(SESSION, session);
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.taskstodo.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stateless session tokens signed with HMAC-SHA256.
+ *
+ * A token is keyId.userId.expiresAt.tokenId.signature, where expiresAt is in epoch
+ * seconds, tokenId is random and the signature (Base64 URL) covers everything before
+ * it. Verifying one is a MAC over a few dozen bytes plus a map lookup: no database.
+ *
+ * Keys come from app.auth.token.keys as keyId:base64Secret pairs. Tokens are signed
+ * with app.auth.token.active-key and accepted with any listed key, so a key is rotated
+ * by adding a new one, making it active, and removing the old one once the tokens it
+ * signed have expired (ttl-minutes). Without configured keys a random key is generated
+ * at startup, and tokens stop working when the application restarts.
+ *
+ * Logout revokes a token by its id until it would have expired. Revocations live in a
+ * concurrent map read without locks and are pruned of expired entries as it grows; they
+ * are per process and not persisted.
+ */
+@Component
+public class TokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int TOKEN_ID_BYTES = 12;
+    private static final int MIN_KEY_BYTES = 32;
+    private static final int PRUNE_THRESHOLD = 1024;
+
+    private final Map<String, Mac> keys;
+    private final String activeKeyId;
+    private final long ttlSeconds;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile int pruneAt = PRUNE_THRESHOLD;
+
+    public TokenService(@Value("${app.auth.token.keys:}") String configuredKeys,
+                        @Value("${app.auth.token.active-key:}") String activeKey,
+                        @Value("${app.auth.token.ttl-minutes:720}") long ttlMinutes) {
+        Map<String, Mac> parsed = new LinkedHashMap<>();
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("app.auth.token.keys entries must be keyId:base64Secret");
+            }
+            String keyId = entry.substring(0, colon).trim();
+            if (!keyId.matches("[A-Za-z0-9]+")) {
+                throw new IllegalArgumentException("Token key id must be letters and digits: " + keyId);
+            }
+            byte[] secret = Base64.getDecoder().decode(entry.substring(colon + 1).trim());
+            if (secret.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Token key " + keyId + " must have at least " + MIN_KEY_BYTES + " bytes");
+            }
+            parsed.put(keyId, mac(secret));
+        }
+
+        if (parsed.isEmpty()) {
+            byte[] secret = new byte[MIN_KEY_BYTES];
+            random.nextBytes(secret);
+            parsed.put("local", mac(secret));
+            System.out.println("✓ Session tokens: random key generated (set app.auth.token.keys to keep sessions across restarts)");
+        } else {
+            System.out.println("✓ Session tokens: " + parsed.size() + " key(s) configured");
+        }
+        this.activeKeyId = activeKey.isBlank() ? parsed.keySet().iterator().next() : activeKey;
+        if (!parsed.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("app.auth.token.active-key " + activeKeyId + " is not in app.auth.token.keys");
+        }
+        this.keys = Map.copyOf(parsed);
+        this.ttlSeconds = TimeUnit.MINUTES.toSeconds(ttlMinutes);
+    }
+
+    /**
+     * Issue a token for a user, valid for ttl-minutes.
+     */
+    public String issue(int userId) {
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenId);
+        long expiresAt = now() + ttlSeconds;
+        String payload = activeKeyId + "." + userId + "." + expiresAt + "." + base64(tokenId);
+        return payload + "." + base64(sign(keys.get(activeKeyId), payload));
+    }
+
+    /**
+     * Check a token's signature, expiry and revocation.
+     *
+     * @return the session it carries, or null if the token is not valid
+     */
+    public Session verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        String[] parts = signatureStart > 0 ? token.substring(0, signatureStart).split("\\.", -1) : null;
+        if (parts == null || parts.length != 4) {
+            return null;
+        }
+        Mac key = keys.get(parts[0]);
+        if (key == null) {
+            return null;
+        }
+        try {
+            byte[] expected = sign(key, token.substring(0, signatureStart));
+            if (!MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(token.substring(signatureStart + 1)))) {
+                return null;
+            }
+            long expiresAt = Long.parseLong(parts[2]);
+            if (expiresAt <= now() || revoked.containsKey(parts[3])) {
+                return null;
+            }
+            return new Session(Integer.parseInt(parts[1]), parts[3], expiresAt);
+        } catch (IllegalArgumentException e) {
+            // Signature that is not Base64, or a field that is not a number
+            return null;
+        }
+    }
+
+    /**
+     * Whether a verified session is still valid: not expired and not logged out.
+     * For long-lived connections that outlast the request that verified the token.
+     */
+    public boolean isActive(Session session) {
+        return session.getExpiresAt() > now() && !revoked.containsKey(session.getTokenId());
+    }
+
+    /**
+     * Revoke a session's token until it would have expired anyway.
+     */
+    public void revoke(Session session) {
+        revoked.put(session.getTokenId(), session.getExpiresAt());
+        if (revoked.size() >= pruneAt) {
+            long now = now();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            pruneAt = Math.max(PRUNE_THRESHOLD, revoked.size() * 2);
+        }
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    private static Mac mac(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    /**
+     * Sign with a copy of the initialized key: Mac is not thread-safe, and cloning is
+     * cheaper than a new instance plus init.
+     */
+    private static byte[] sign(Mac key, String payload) {
+        Mac mac;
+        try {
+            mac = (Mac) key.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " does not support clone", e);
+        }
+        return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * The authenticated user of a request, as carried by a verified token.
+     */
+    public static class Session {
+        private final int userId;
+        private final String tokenId;
+        private final long expiresAt;
+
+        public Session(int userId, String tokenId, long expiresAt) {
+            this.userId = userId;
+            this.tokenId = tokenId;
+            this.expiresAt = expiresAt;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getTokenId() {
+            return tokenId;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
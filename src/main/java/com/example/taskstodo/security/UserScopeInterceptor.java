@@ -0,0 +1,41 @@
+package com.example.taskstodo.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Lets a session reach only its own user's endpoints: when the matched route has a
+ * {userId} path variable, it must equal the user of the request's token (403 otherwise).
+ *
+ * Runs after routing, so it sees the decoded variable Spring MVC will bind, whatever
+ * encoding or path quirks the raw URI had.
+ */
+@Component
+public class UserScopeInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String userId = variables != null ? variables.get("userId") : null;
+        if (userId == null) {
+            return true;
+        }
+        TokenService.Session session = (TokenService.Session) request.getAttribute(TokenAuthenticationFilter.SESSION);
+        if (session != null && userId.equals(Integer.toString(session.getUserId()))) {
+            return true;
+        }
+        response.setStatus(403);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Acesso negado\"}");
+        return false;
+    }
+}
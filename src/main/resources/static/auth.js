@@ -0,0 +1,45 @@
+// Sessão do usuário: token assinado devolvido pelo login, guardado no localStorage.
+// Todas as chamadas /api (exceto login e registro) precisam dele no header Authorization.
+
+function authToken() {
+  return localStorage.getItem('authToken');
+}
+
+// fetch com o token; se a sessão expirou ou foi revogada (401), volta para o login
+function authFetch(url, options = {}) {
+  const headers = new Headers(options.headers || {});
+  const token = authToken();
+  if (token) {
+    headers.set('Authorization', 'Bearer ' + token);
+  }
+  return fetch(url, { ...options, headers }).then(response => {
+    if (response.status === 401) {
+      clearSession();
+      window.location.href = '/login.html';
+      return new Promise(() => {});
+    }
+    return response;
+  });
+}
+
+function clearSession() {
+  localStorage.removeItem('currentUser');
+  localStorage.removeItem('authToken');
+}
+
+// Revoga o token no servidor e limpa a sessão local
+function logout() {
+  const token = authToken();
+  const done = () => {
+    clearSession();
+    localStorage.removeItem('rememberUsername');
+    window.location.href = '/login.html';
+  };
+  if (!token) {
+    done();
+    return;
+  }
+  fetch('/api/auth/logout', { method: 'POST', headers: { 'Authorization': 'Bearer ' + token } })
+    .catch(() => {})
+    .finally(done);
+}
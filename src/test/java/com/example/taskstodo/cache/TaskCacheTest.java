@@ -0,0 +1,78 @@
+package com.example.taskstodo.cache;
+
+import com.example.taskstodo.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCacheTest {
+    private final TaskCache cache = new TaskCache(true, 100, 1 << 20);
+
+    @Test
+    void addedReplacesATaskTheLoadAlreadyHolds() {
+        Task task = task(7, 1, "new");
+        // The list was loaded after the insert committed, so it already has the task
+        cache.get(1, () -> List.of(task, task(3, 1, "old")));
+
+        cache.added(task);
+
+        assertThat(cache.getIfPresent(1)).extracting(Task::getId).containsExactly(7, 3);
+    }
+
+    @Test
+    void addedPutsANewTaskFirst() {
+        cache.get(1, () -> List.of(task(3, 1, "old")));
+
+        cache.added(task(7, 1, "new"));
+
+        assertThat(cache.getIfPresent(1)).extracting(Task::getId).containsExactly(7, 3);
+    }
+
+    @Test
+    void loadRacingWithAPatchIsNotInstalled() {
+        List<Task> loaded = cache.get(1, () -> {
+            // A write lands while the list is being read from the database
+            cache.completed(1, 3, 1);
+            return List.of(task(3, 1, "stale"));
+        });
+
+        assertThat(loaded).extracting(Task::getId).containsExactly(3);
+        assertThat(cache.getIfPresent(1)).isNull();
+        assertThat(cache.get(1, () -> List.of(task(3, 1, "fresh"))))
+                .extracting(Task::getTitle).containsExactly("fresh");
+        assertThat(cache.getIfPresent(1)).isNotNull();
+    }
+
+    @Test
+    void loadRacingWithAnInvalidateIsNotInstalled() {
+        cache.get(1, () -> {
+            cache.invalidate(1);
+            return List.of(task(3, 1, "stale"));
+        });
+
+        assertThat(cache.getIfPresent(1)).isNull();
+    }
+
+    @Test
+    void patchesKeepCachedListsCurrent() {
+        cache.get(1, () -> List.of(task(3, 1, "a"), task(4, 1, "b")));
+
+        cache.completed(1, 3, 1);
+        Task renamed = task(4, 1, "renamed");
+        renamed.setCreatedAt(null);
+        cache.updated(renamed);
+        cache.removed(1, 3);
+
+        assertThat(cache.getIfPresent(1)).singleElement().satisfies(task -> {
+            assertThat(task.getTitle()).isEqualTo("renamed");
+            assertThat(task.getCreatedAt()).isEqualTo("2024-01-01 00:00:00");
+        });
+        assertThat(cache.stats()).containsEntry("patches", 3L).containsEntry("misses", 1L);
+    }
+
+    private static Task task(int id, int userId, String title) {
+        return new Task(id, title, null, null, userId, null, 0, "2024-01-01 00:00:00");
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.taskstodo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadDataSourceTest {
+    @TempDir
+    Path directory;
+
+    private BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        bulkhead = new BulkheadDataSource(writer("tasks.db"), 1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bulkhead.close();
+    }
+
+    @Test
+    void newCallersQueueBehindWaitingOnes() throws Exception {
+        BulkheadDataSource queue = new BulkheadDataSource(writer("fifo.db"), 10);
+        try {
+            // Repeated: whether the woken waiter or the late caller runs first is up to the scheduler
+            for (int round = 0; round < 20; round++) {
+                List<String> order = new CopyOnWriteArrayList<>();
+                Connection held = queue.getConnection();
+                Thread waiter = new Thread(() -> {
+                    try (Connection connection = queue.getConnection()) {
+                        order.add("waiter");
+                    } catch (SQLException e) {
+                        order.add("waiter failed: " + e);
+                    }
+                });
+                waiter.start();
+                awaitWaiting(queue, 1);
+
+                // The permit freed here belongs to the waiter, even before it wakes up
+                held.close();
+                try (Connection connection = queue.getConnection()) {
+                    order.add("late caller");
+                }
+                waiter.join();
+
+                assertThat(order).as("round %d", round).containsExactly("waiter", "late caller");
+            }
+        } finally {
+            queue.close();
+        }
+    }
+
+    @Test
+    void rejectsCallersBeyondMaxWaiting() throws Exception {
+        Connection held = bulkhead.getConnection();
+        Thread waiter = new Thread(() -> {
+            try (Connection connection = bulkhead.getConnection()) {
+                // Queued behind held
+            } catch (SQLException e) {
+                // Timed out
+            }
+        });
+        waiter.start();
+        awaitWaiting(bulkhead, 1);
+
+        assertThatThrownBy(bulkhead::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("bulkhead full");
+        held.close();
+        waiter.join();
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    /**
+     * A single-connection pool with a short timeout.
+     */
+    private HikariDataSource writer(String file) {
+        return new SqliteDataSourceFactory("jdbc:sqlite:" + directory.resolve(file), 5000, "NORMAL", 0)
+                .createWriter(2000);
+    }
+
+    private static void awaitWaiting(BulkheadDataSource bulkhead, int callers) throws InterruptedException {
+        for (int i = 0; i < 500 && bulkhead.getWaiting() < callers; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(bulkhead.getWaiting()).isEqualTo(callers);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.taskstodo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskTransferTest {
+
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        TaskTransfer.CsvReader reader = reader("a,\"b, c\",\"say \"\"hi\"\"\"\r\n"
+                + "\"two\r\nlines\",\"x\ny\",\r\n"
+                + "last,,\"\"");
+
+        assertThat(reader.next()).containsExactly("a", "b, c", "say \"hi\"");
+        assertThat(reader.getLine()).isEqualTo(1);
+        assertThat(reader.next()).containsExactly("two\r\nlines", "x\ny", "");
+        assertThat(reader.getLine()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("last", "", "");
+        assertThat(reader.getLine()).isEqualTo(5);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void acceptsCrLfLfAndCrLineEndings() throws IOException {
+        TaskTransfer.CsvReader reader = reader("a,b\r\nc,d\ne,f\rg,h\r\n");
+
+        assertThat(readAll(reader)).containsExactly(
+                List.of("a", "b"), List.of("c", "d"), List.of("e", "f"), List.of("g", "h"));
+    }
+
+    @Test
+    void handlesRecordsSplitAcrossReads() throws IOException {
+        // One character per read: "" and \r\n straddle every buffer refill
+        Reader slow = new StringReader("\"a\"\"b\",c\r\n\"d\r\ne\"\r\n") {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        TaskTransfer.CsvReader reader = new TaskTransfer.CsvReader(slow);
+
+        assertThat(readAll(reader)).containsExactly(List.of("a\"b", "c"), List.of("d\r\ne"));
+    }
+
+    @Test
+    void reportsTheLineOfAnUnclosedQuote() throws IOException {
+        TaskTransfer.CsvReader reader = reader("title\nok\n\"never\nclosed,\n");
+
+        reader.next();
+        reader.next();
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Quoted field starting on line 3 is not closed");
+    }
+
+    @Test
+    void mapsHeaderColumnsByFieldName() {
+        Map<String, Integer> columns = TaskTransfer.CsvReader.columns(
+                List.of("\uFEFFid", " Title ", "category_id", "dueDate", "title"));
+
+        assertThat(columns).containsExactlyInAnyOrderEntriesOf(Map.of("id", 0, "title", 1, "categoryid", 2, "duedate", 3));
+        assertThat(TaskTransfer.CsvReader.row(columns, List.of("1", "short"))).isEqualTo(Map.of("id", "1", "title", "short"));
+    }
+
+    @Test
+    void guardsFormulasOnExportAndRestoresThemOnImport() throws IOException {
+        List<String> titles = List.of("=HYPERLINK(\"x\")", "+1", "-5", "@SUM(A1)", "\tx", "'=1+1", "'normal", "plain", "'");
+        StringWriter out = new StringWriter();
+        TaskTransfer.writeCsvHeader(out);
+        for (int i = 0; i < titles.size(); i++) {
+            TaskTransfer.writeCsv(out, new Task(i + 1, titles.get(i), null, null, 1, null, 0, "2024-01-01 00:00:00"));
+        }
+
+        TaskTransfer.CsvReader reader = reader(out.toString());
+        Map<String, Integer> columns = TaskTransfer.CsvReader.columns(reader.next());
+        List<String> written = new ArrayList<>();
+        List<Object> read = new ArrayList<>();
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            written.add(record.get(columns.get("title")));
+            read.add(TaskTransfer.CsvReader.row(columns, record).get("title"));
+        }
+
+        assertThat(written).containsExactly(
+                "'=HYPERLINK(\"x\")", "'+1", "'-5", "'@SUM(A1)", "'\tx", "''=1+1", "'normal", "plain", "'");
+        assertThat(read).containsExactlyElementsOf(titles);
+    }
+
+    @Test
+    void buildsATaskFromARow() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("title", "Write tests");
+        row.put("description", "");
+        row.put("categoryid", "2");
+        row.put("duedate", "2024-05-01");
+        row.put("completed", true);
+
+        Task task = TaskTransfer.toTask(row, 9, Set.of(2));
+
+        assertThat(task.getTitle()).isEqualTo("Write tests");
+        assertThat(task.getDescription()).isNull();
+        assertThat(task.getCategoryId()).isEqualTo(2);
+        assertThat(task.getUserId()).isEqualTo(9);
+        assertThat(task.getDueDate()).isEqualTo("2024-05-01");
+        assertThat(task.getCompleted()).isEqualTo(1);
+        assertThat(task.getCreatedAt()).isNull();
+    }
+
+    @Test
+    void rejectsInvalidRows() {
+        assertInvalid(Map.of(), "title is required");
+        assertInvalid(Map.of("title", " "), "title is required");
+        assertInvalid(Map.of("title", List.of("a")), "title must be text");
+        assertInvalid(Map.of("title", "t", "categoryid", 7), "category_id 7 does not exist");
+        assertInvalid(Map.of("title", "t", "categoryid", "two"), "category_id must be an integer");
+        assertInvalid(Map.of("title", "t", "categoryid", 1.5), "category_id must be an integer");
+        assertInvalid(Map.of("title", "t", "completed", "yes"), "completed must be an integer");
+        assertInvalid(Map.of("title", "t", "duedate", "tomorrow"), "due_date must start with a date (YYYY-MM-DD)");
+        assertInvalid(Map.of("title", "t", "createdat", "01/05/2024"), "created_at must start with a date (YYYY-MM-DD)");
+    }
+
+    private static void assertInvalid(Map<String, ?> row, String message) {
+        assertThatThrownBy(() -> TaskTransfer.toTask(row, 1, Set.of(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+
+    private static TaskTransfer.CsvReader reader(String csv) {
+        return new TaskTransfer.CsvReader(new StringReader(csv));
+    }
+
+    private static List<List<String>> readAll(TaskTransfer.CsvReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = reader.next(); record != null; record = reader.next()) {
+            records.add(record);
+        }
+        return records;
+    }
+}
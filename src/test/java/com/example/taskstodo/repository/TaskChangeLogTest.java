@@ -0,0 +1,113 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.model.Task;
+import com.example.taskstodo.model.TaskChanges;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskChangeLogTest {
+    @TempDir
+    Path directory;
+
+    private TestDatabase db;
+    private TaskChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase(directory);
+        TaskWriteBehind writeBehind = new TaskWriteBehind(db.writeJdbc, db.writeTransaction, false,
+                20, 500, 10_000, TaskWriteBehind.Durability.COMMIT);
+        // No scheduled compaction; tombstones expire after one day
+        changeLog = new TaskChangeLog(db.jdbc, db.writeJdbc, db.writeTransaction, writeBehind, 0, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeLog.shutdown();
+        db.close();
+    }
+
+    @Test
+    void returnsOnlyChangesAfterTheRevision() {
+        Integer first = db.insertTask("first", 1);
+        Integer second = db.insertTask("second", 1);
+        db.insertTask("other user", 2);
+        TaskChanges initial = changeLog.findChanges(1, 0);
+        assertThat(initial.isReset()).isTrue();
+        assertThat(initial.getUpserts()).extracting(Task::getId).containsExactly(first, second);
+
+        db.writeJdbc.update("UPDATE tasks SET completed = 1 WHERE id = ?", first);
+        db.writeJdbc.update("DELETE FROM tasks WHERE id = ?", second);
+        TaskChanges changes = changeLog.findChanges(1, initial.getRevision());
+
+        assertThat(changes.isReset()).isFalse();
+        assertThat(changes.getUpserts()).singleElement().satisfies(task -> {
+            assertThat(task.getId()).isEqualTo(first);
+            assertThat(task.getCompleted()).isEqualTo(1);
+        });
+        assertThat(changes.getDeleted()).containsExactly(second);
+        assertThat(changes.getRevision()).isGreaterThan(initial.getRevision());
+        assertThat(changeLog.findChanges(1, changes.getRevision()).getUpserts()).isEmpty();
+    }
+
+    @Test
+    void resetsClientsBehindTheHorizon() {
+        Integer kept = db.insertTask("kept", 1);
+        Integer deleted = db.insertTask("deleted", 1);
+        db.insertTask("other user", 2);
+        long beforeDelete = changeLog.findChanges(1, 0).getRevision();
+        long otherUser = changeLog.findChanges(2, 0).getRevision();
+
+        db.writeJdbc.update("DELETE FROM tasks WHERE id = ?", deleted);
+        long afterDelete = changeLog.findChanges(1, beforeDelete).getRevision();
+        db.writeJdbc.update("UPDATE task_changes SET changed_at = datetime('now', '-2 days') WHERE deleted = 1");
+        // The insert entry superseded by the tombstone, then the expired tombstone itself
+        assertThat(changeLog.compact()).isEqualTo(2);
+
+        // The tombstone is gone, so a client that has not seen the delete must start over
+        TaskChanges behind = changeLog.findChanges(1, beforeDelete);
+        assertThat(behind.isReset()).isTrue();
+        assertThat(behind.getUpserts()).extracting(Task::getId).containsExactly(kept);
+        assertThat(behind.getDeleted()).isEmpty();
+
+        TaskChanges current = changeLog.findChanges(1, afterDelete);
+        assertThat(current.isReset()).isFalse();
+        assertThat(current.getUpserts()).isEmpty();
+
+        // Other users keep their own horizon
+        assertThat(changeLog.findChanges(2, otherUser).isReset()).isFalse();
+    }
+
+    @Test
+    void resetsUnknownRevisions() {
+        db.insertTask("task", 1);
+        long revision = changeLog.findChanges(1, 0).getRevision();
+
+        TaskChanges ahead = changeLog.findChanges(1, revision + 100);
+
+        assertThat(ahead.isReset()).isTrue();
+        assertThat(ahead.getUpserts()).hasSize(1);
+    }
+
+    @Test
+    void compactionKeepsTheNewestEntryOfEachTask() {
+        Integer id = db.insertTask("task", 1);
+        long before = changeLog.findChanges(1, 0).getRevision();
+        for (int i = 0; i < 3; i++) {
+            db.writeJdbc.update("UPDATE tasks SET title = ? WHERE id = ?", "title " + i, id);
+        }
+
+        assertThat(changeLog.compact()).isEqualTo(3);
+        assertThat(db.jdbc.queryForObject("SELECT COUNT(*) FROM task_changes", Integer.class)).isEqualTo(1);
+
+        TaskChanges changes = changeLog.findChanges(1, before);
+        assertThat(changes.isReset()).isFalse();
+        assertThat(changes.getUpserts()).extracting(Task::getTitle).containsExactly("title 2");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.cache.TaskCache;
+import com.example.taskstodo.cache.TaskColumnStore;
+import com.example.taskstodo.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskRepositoryTest {
+    @TempDir
+    Path directory;
+
+    private TestDatabase db;
+    private TaskWriteBehind writeBehind;
+    private TaskCache cache;
+    private TaskRepository repository;
+
+    private final AtomicInteger updates = new AtomicInteger();
+    private final CountDownLatch firstWritten = new CountDownLatch(1);
+    private final CountDownLatch secondPatched = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase(directory);
+        cache = new TaskCache(true, 100, 1 << 20) {
+            @Override
+            public void updated(Task task) {
+                super.updated(task);
+                if (updates.get() > 1) {
+                    secondPatched.countDown();
+                }
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+        db.close();
+    }
+
+    @Test
+    void concurrentUpdatesPatchTheCacheInCommitOrder() throws InterruptedException {
+        JdbcTemplate writeJdbc = new JdbcTemplate(db.writer) {
+            @Override
+            public int update(String sql, Object... args) {
+                int rows = super.update(sql, args);
+                holdFirstWrite();
+                return rows;
+            }
+        };
+        writeBehind = new TaskWriteBehind(writeJdbc, db.writeTransaction, false,
+                20, 500, 10_000, TaskWriteBehind.Durability.COMMIT);
+        repository = repository(writeJdbc);
+
+        assertThat(updateConcurrently()).isEqualTo("second");
+    }
+
+    @Test
+    void concurrentQueuedUpdatesPatchTheCacheInQueueOrder() throws InterruptedException {
+        writeBehind = new TaskWriteBehind(db.writeJdbc, db.writeTransaction, true,
+                60_000, 500, 10_000, TaskWriteBehind.Durability.ASYNC) {
+            @Override
+            CompletableFuture<Void> queueUpdate(Task task) {
+                CompletableFuture<Void> queued = super.queueUpdate(task);
+                holdFirstWrite();
+                return queued;
+            }
+        };
+        repository = repository(db.writeJdbc);
+
+        assertThat(updateConcurrently()).isEqualTo("second");
+    }
+
+    /**
+     * Holds the first update between its write and its cache patch until the second update
+     * has patched the cache, or for 300 ms if the second one cannot get that far.
+     */
+    private void holdFirstWrite() {
+        if (updates.incrementAndGet() == 1) {
+            firstWritten.countDown();
+            try {
+                secondPatched.await(300, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Rename one task from two threads, the second starting once the first has written.
+     *
+     * @return the cached title, after checking the database ended with the same one
+     */
+    private String updateConcurrently() throws InterruptedException {
+        Integer id = db.insertTask("original", 1);
+        assertThat(repository.findByUserId(1)).extracting(Task::getTitle).containsExactly("original");
+
+        Thread first = new Thread(() -> repository.update(renamed(id, "first")));
+        first.start();
+        assertThat(firstWritten.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread second = new Thread(() -> repository.update(renamed(id, "second")));
+        second.start();
+        first.join();
+        second.join();
+
+        writeBehind.flushPending();
+        assertThat(db.find(id).getTitle()).isEqualTo("second");
+        return cache.getIfPresent(1).get(0).getTitle();
+    }
+
+    private TaskRepository repository(JdbcTemplate writeJdbc) {
+        return new TaskRepository(db.jdbc, writeJdbc, db.writeTransaction, writeBehind, cache,
+                new TaskColumnStore(db.jdbc, null, false));
+    }
+
+    private Task renamed(Integer id, String title) {
+        Task task = db.find(id);
+        task.setTitle(title);
+        return task;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskWriteBehindTest {
+    @TempDir
+    Path directory;
+
+    private TestDatabase db;
+    private TaskWriteBehind writeBehind;
+    private final List<Integer> dropped = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        db = new TestDatabase(directory);
+        // Long delay: every test flushes explicitly
+        writeBehind = writeBehind(TaskWriteBehind.Durability.ASYNC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.shutdown();
+        db.close();
+    }
+
+    @Test
+    void coalescesWritesToTheSameTask() {
+        Integer id = db.insertTask("original", 1);
+        Task renamed = db.find(id);
+        renamed.setTitle("renamed");
+
+        writeBehind.update(renamed);
+        writeBehind.markCompleted(id, 1);
+        assertThat(db.find(id).getTitle()).isEqualTo("original");
+
+        writeBehind.flush();
+        Task stored = db.find(id);
+        assertThat(stored.getTitle()).isEqualTo("renamed");
+        assertThat(stored.getCompleted()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteSupersedesEarlierWrites() {
+        Integer id = db.insertTask("doomed", 1);
+        writeBehind.markCompleted(id, 1);
+        writeBehind.deleteById(id);
+        writeBehind.markCompleted(id, 0);
+
+        writeBehind.flush();
+        assertThat(db.find(id)).isNull();
+    }
+
+    @Test
+    void readsOverlayQueuedWrites() {
+        Integer kept = db.insertTask("kept", 1);
+        Integer deleted = db.insertTask("deleted", 1);
+        String createdAt = db.find(kept).getCreatedAt();
+        Task update = db.find(kept);
+        update.setTitle("updated");
+        update.setCreatedAt(null);
+
+        writeBehind.update(update);
+        writeBehind.markCompleted(kept, 1);
+        writeBehind.deleteById(deleted);
+
+        List<Task> tasks = writeBehind.read(() -> List.of(db.find(kept), db.find(deleted)));
+        assertThat(tasks).singleElement().satisfies(task -> {
+            assertThat(task.getTitle()).isEqualTo("updated");
+            assertThat(task.getCompleted()).isEqualTo(1);
+            assertThat(task.getCreatedAt()).isEqualTo(createdAt);
+        });
+        assertThat(writeBehind.overlay(db.find(deleted))).isNull();
+
+        writeBehind.flush();
+        Task stored = db.find(kept);
+        assertThat(stored.getTitle()).isEqualTo("updated");
+        assertThat(writeBehind.overlay(stored)).isSameAs(stored);
+    }
+
+    @Test
+    void failedWriteIsDroppedWithoutLosingTheRestOfTheBatch() {
+        Integer good = db.insertTask("good", 1);
+        Integer bad = db.insertTask("bad", 2);
+        Task invalid = db.find(bad);
+        invalid.setTitle(null);
+
+        writeBehind.markCompleted(good, 1);
+        writeBehind.update(invalid);
+        writeBehind.flush();
+
+        assertThat(db.find(good).getCompleted()).isEqualTo(1);
+        assertThat(db.find(bad).getTitle()).isEqualTo("bad");
+        assertThat(dropped).containsExactly(bad);
+        assertThat(writeBehind.overlay(db.find(bad)).getTitle()).isEqualTo("bad");
+    }
+
+    @Test
+    void commitDurabilityReportsTheFailureToTheCaller() {
+        writeBehind.shutdown();
+        writeBehind = writeBehind(TaskWriteBehind.Durability.COMMIT);
+        Integer id = db.insertTask("task", 1);
+        Task invalid = db.find(id);
+        invalid.setTitle(null);
+
+        // The caller blocks until the scheduled flush, which then fails
+        assertThatThrownBy(() -> writeBehind.update(invalid))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Failed to write task");
+        // The listener runs on the flusher after the caller is released: wait for it
+        writeBehind.shutdown();
+        assertThat(dropped).containsExactly(id);
+    }
+
+    private TaskWriteBehind writeBehind(TaskWriteBehind.Durability durability) {
+        long maxDelayMs = durability == TaskWriteBehind.Durability.ASYNC ? 60_000 : 10;
+        TaskWriteBehind result = new TaskWriteBehind(db.writeJdbc, db.writeTransaction, true,
+                maxDelayMs, 500, 10_000, durability);
+        result.onDropped(dropped::add);
+        return result;
+    }
+}
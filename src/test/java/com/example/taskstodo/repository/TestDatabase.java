@@ -0,0 +1,51 @@
+package com.example.taskstodo.repository;
+
+import com.example.taskstodo.config.SchemaMigrator;
+import com.example.taskstodo.config.SqliteDataSourceFactory;
+import com.example.taskstodo.model.Task;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+
+/**
+ * A migrated SQLite database in a temporary file, wired like DatabaseConfig
+ * (read pool plus single writer connection) without the Spring context.
+ */
+final class TestDatabase implements AutoCloseable {
+    final HikariDataSource readPool;
+    final HikariDataSource writer;
+    final JdbcTemplate jdbc;
+    final JdbcTemplate writeJdbc;
+    final TransactionTemplate writeTransaction;
+
+    TestDatabase(Path directory) {
+        SqliteDataSourceFactory factory = new SqliteDataSourceFactory(
+                "jdbc:sqlite:" + directory.resolve("tasks.db"), 5000, "NORMAL", 0);
+        writer = factory.createWriter(5000);
+        readPool = factory.createReadPool(2);
+        jdbc = new JdbcTemplate(readPool);
+        writeJdbc = new JdbcTemplate(writer);
+        writeTransaction = new TransactionTemplate(new DataSourceTransactionManager(writer));
+        new SchemaMigrator(writeJdbc, writeTransaction).migrate();
+    }
+
+    Integer insertTask(String title, int userId) {
+        writeJdbc.update("INSERT INTO tasks (title, user_id, completed) VALUES (?, ?, 0)", title, userId);
+        return writeJdbc.queryForObject("SELECT last_insert_rowid()", Integer.class);
+    }
+
+    Task find(Integer id) {
+        return jdbc.query("SELECT id, title, description, category_id, user_id, due_date, completed, created_at " +
+                        "FROM tasks WHERE id = ?", TaskRepository.TASK_ROW_MAPPER, id)
+                .stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public void close() {
+        readPool.close();
+        writer.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.taskstodo.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.taskstodo.security.RateLimiter.Budget.LOGIN;
+import static com.example.taskstodo.security.RateLimiter.Budget.READ;
+import static com.example.taskstodo.security.RateLimiter.Budget.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+    private static final long READ_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // read: 10/s with a burst of 3; write: 1/s with a burst of 1; login: one every 5 s, burst 2
+    private final RateLimiter limiter = new RateLimiter(registry, 10, 3, 1, 1, 0.2, 2, 3600);
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void allowsTheBurstThenAsksToWaitOneInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire(READ, "client")).isZero();
+        }
+
+        long wait = limiter.tryAcquire(READ, "client");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(READ_INTERVAL);
+        assertThat(rejected("read")).isEqualTo(1);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire(READ, "client");
+        }
+        long wait = limiter.tryAcquire(READ, "client");
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(limiter.tryAcquire(READ, "client")).isZero();
+        // Only one token came back
+        assertThat(limiter.tryAcquire(READ, "client")).isPositive();
+    }
+
+    @Test
+    void fractionalRatesSpaceRequestsBySeconds() {
+        assertThat(limiter.tryAcquire(LOGIN, "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire(LOGIN, "10.0.0.1")).isZero();
+
+        long wait = limiter.tryAcquire(LOGIN, "10.0.0.1");
+        assertThat(wait).isGreaterThan(TimeUnit.SECONDS.toNanos(4)).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void clientsAndBudgetsHaveSeparateBuckets() {
+        assertThat(limiter.tryAcquire(WRITE, 1)).isZero();
+        assertThat(limiter.tryAcquire(WRITE, 1)).isPositive();
+
+        assertThat(limiter.tryAcquire(WRITE, 2)).isZero();
+        assertThat(limiter.tryAcquire(READ, 1)).isZero();
+        assertThat(rejected("write")).isEqualTo(1);
+        assertThat(rejected("read")).isZero();
+    }
+
+    @Test
+    void sweepDropsOnlyFullBuckets() throws InterruptedException {
+        limiter.tryAcquire(READ, "idle");
+        limiter.tryAcquire(WRITE, "busy");
+        assertThat(buckets("read")).isEqualTo(1);
+
+        // The read bucket refills after one interval, the write bucket only after a second
+        TimeUnit.NANOSECONDS.sleep(READ_INTERVAL + TimeUnit.MILLISECONDS.toNanos(5));
+        limiter.sweep();
+
+        assertThat(buckets("read")).isZero();
+        assertThat(buckets("write")).isEqualTo(1);
+        assertThat(limiter.tryAcquire(WRITE, "busy")).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThatThrownBy(() -> new RateLimiter(registry, 0, 1, 1, 1, 1, 1, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RateLimiter(registry, 1, 0, 1, 1, 1, 1, 60))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private double rejected(String budget) {
+        return registry.get("http.ratelimit.rejected").tag("budget", budget).counter().count();
+    }
+
+    private double buckets(String budget) {
+        return registry.get("http.ratelimit.buckets").tag("budget", budget).gauge().value();
+    }
+}